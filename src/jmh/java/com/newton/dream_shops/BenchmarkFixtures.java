@@ -0,0 +1,90 @@
+package com.newton.dream_shops;
+
+import com.newton.dream_shops.enums.OrderStatus;
+import com.newton.dream_shops.models.auth.User;
+import com.newton.dream_shops.models.category.Category;
+import com.newton.dream_shops.models.image.Image;
+import com.newton.dream_shops.models.order.Order;
+import com.newton.dream_shops.models.order.OrderItem;
+import com.newton.dream_shops.models.product.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Detached entities shaped like production data, shared by the benchmarks
+ */
+public final class BenchmarkFixtures {
+
+    public static final int IMAGES_PER_PRODUCT = 3;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Product product(long id) {
+        Category category = new Category("Category " + (id % 10));
+        category.setId(id % 10);
+
+        Product product = new Product(
+                "Product " + id,
+                "Brand " + (id % 25),
+                "A product description long enough to resemble a real catalogue entry for product " + id,
+                BigDecimal.valueOf(1999, 2).add(BigDecimal.valueOf(id)),
+                100,
+                category);
+        product.setId(id);
+        product.setImages(images(product));
+        return product;
+    }
+
+    public static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.add(product(id));
+        }
+        return products;
+    }
+
+    public static List<Image> images(Product product) {
+        List<Image> images = new ArrayList<>(IMAGES_PER_PRODUCT);
+        for (long i = 1; i <= IMAGES_PER_PRODUCT; i++) {
+            long id = product.getId() * 10 + i;
+            images.add(new Image(id, "image-" + id + ".jpg", "image/jpeg",
+                    "https://storage.example.com/products/" + product.getId() + "/image-" + id + ".jpg",
+                    "products/" + product.getId() + "/image-" + id + ".jpg", product));
+        }
+        return images;
+    }
+
+    public static Order order(int lineCount) {
+        User user = new User();
+        user.setId(7L);
+
+        Order order = new Order();
+        order.setId(1000L);
+        order.setUser(user);
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderStatus(OrderStatus.PENDING);
+
+        List<OrderItem> items = orderItems(order, lineCount);
+        order.setOrderItems(new HashSet<>(items));
+        order.setTotalPrice(items.stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return order;
+    }
+
+    public static List<OrderItem> orderItems(Order order, int lineCount) {
+        List<OrderItem> items = new ArrayList<>(lineCount);
+        for (long id = 1; id <= lineCount; id++) {
+            Product product = product(id);
+            OrderItem item = new OrderItem(order, product, (int) (id % 5) + 1, product.getPrice());
+            item.setId(id);
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,112 @@
+package com.newton.dream_shops.cache;
+
+import com.newton.dream_shops.BenchmarkFixtures;
+import com.newton.dream_shops.config.CacheConfig;
+import com.newton.dream_shops.dto.order.OrderDto;
+import com.newton.dream_shops.dto.product.ProductDto;
+import com.newton.dream_shops.mapper.ImageMapper;
+import com.newton.dream_shops.mapper.OrderMapper;
+import com.newton.dream_shops.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of cached product and order values through the JSON serializer
+ * and the compact serializer, configured as in {@link CacheConfig}. The
+ * payload parameter is the value shape and its size: a product or product
+ * list of that many entries, or an order with that many lines. The serialize
+ * benchmarks report the encoded size as the jsonBytes and compactBytes
+ * secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"product:1", "product:20", "product:100", "order:1", "order:10", "order:50"})
+    private String payload;
+
+    private RedisSerializer<Object> jsonSerializer;
+    private RedisSerializer<Object> compactSerializer;
+    private Object value;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        CacheConfig cacheConfig = new CacheConfig();
+        ReflectionTestUtils.setField(cacheConfig, "compressionThreshold", 1024);
+        jsonSerializer = cacheConfig.cacheValueSerializer();
+        compactSerializer = cacheConfig.compactCacheValueSerializer();
+
+        String[] shape = payload.split(":");
+        int size = Integer.parseInt(shape[1]);
+        value = "order".equals(shape[0]) ? order(size) : products(size);
+
+        jsonBytes = jsonSerializer.serialize(value);
+        compactBytes = compactSerializer.serialize(value);
+    }
+
+    private static Object products(int count) {
+        ProductMapper productMapper = new ProductMapper(new ImageMapper());
+        ArrayList<ProductDto> products = new ArrayList<>(BenchmarkFixtures.products(count).stream()
+                .map(product -> productMapper.toDto(product, product.getImages()))
+                .toList());
+        return count == 1 ? products.get(0) : products;
+    }
+
+    private static OrderDto order(int lineCount) {
+        OrderDto order = new OrderMapper().toDto(BenchmarkFixtures.order(lineCount));
+        order.setOrderItems(new ArrayList<>(order.getOrderItems()));
+        return order;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long jsonBytes;
+        public long compactBytes;
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize(EncodedSize size) {
+        byte[] bytes = jsonSerializer.serialize(value);
+        size.jsonBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize(EncodedSize size) {
+        byte[] bytes = compactSerializer.serialize(value);
+        size.compactBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compactSerializer.deserialize(compactBytes);
+    }
+}
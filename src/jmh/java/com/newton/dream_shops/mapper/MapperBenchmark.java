@@ -0,0 +1,87 @@
+package com.newton.dream_shops.mapper;
+
+import com.newton.dream_shops.BenchmarkFixtures;
+import com.newton.dream_shops.dto.image.ImageResponseDto;
+import com.newton.dream_shops.dto.order.OrderDto;
+import com.newton.dream_shops.dto.product.ProductDto;
+import com.newton.dream_shops.models.order.Order;
+import com.newton.dream_shops.models.product.Product;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hand-written mappers against the reflective ModelMapper they
+ * replaced. The product benchmarks map a listing page the way
+ * {@code ProductService.getConvertedProducts} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "20"})
+    private int size;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ProductMapper productMapper = new ProductMapper(new ImageMapper());
+    private final OrderMapper orderMapper = new OrderMapper();
+
+    private List<Product> products;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkFixtures.products(size);
+        order = BenchmarkFixtures.order(size);
+
+        // ModelMapper builds its type maps on first use; keep that out of the measurement
+        modelMapperProducts();
+        modelMapperOrder();
+    }
+
+    @Benchmark
+    public List<ProductDto> productMapperProducts() {
+        return products.stream()
+                .map(product -> productMapper.toDto(product, product.getImages()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<ProductDto> modelMapperProducts() {
+        return products.stream()
+                .map(product -> {
+                    ProductDto dto = modelMapper.map(product, ProductDto.class);
+                    dto.setImages(product.getImages().stream()
+                            .map(image -> modelMapper.map(image, ImageResponseDto.class))
+                            .toList());
+                    return dto;
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public OrderDto orderMapperOrder() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public OrderDto modelMapperOrder() {
+        return modelMapper.map(order, OrderDto.class);
+    }
+}
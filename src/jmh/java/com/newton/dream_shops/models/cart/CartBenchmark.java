@@ -0,0 +1,69 @@
+package com.newton.dream_shops.models.cart;
+
+import com.newton.dream_shops.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding, changing and removing one line, each of which adjusts the running cart total
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int lineCount;
+
+    private Cart cart;
+    private CartItem extraItem;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        for (long id = 1; id <= lineCount; id++) {
+            cart.addItem(item(id));
+        }
+        extraItem = item(lineCount + 1L);
+    }
+
+    private CartItem item(long id) {
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProduct(BenchmarkFixtures.product(id));
+        item.setQuantity((int) (id % 5) + 1);
+        item.setUnitPrice(item.getProduct().getPrice());
+        item.setTotalPrice();
+        return item;
+    }
+
+    @Benchmark
+    public BigDecimal addAndRemoveItem() {
+        cart.addItem(extraItem);
+        cart.removeItem(extraItem);
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal updateItemQuantity() {
+        cart.addItem(extraItem);
+        cart.updateItem(extraItem, extraItem.getQuantity() == 1 ? 2 : 1, extraItem.getUnitPrice());
+        cart.removeItem(extraItem);
+        return cart.getTotalAmount();
+    }
+}
@@ -0,0 +1,48 @@
+package com.newton.dream_shops.services.order;
+
+import com.newton.dream_shops.BenchmarkFixtures;
+import com.newton.dream_shops.models.order.Order;
+import com.newton.dream_shops.models.order.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cost of totalling an order by its number of lines. The
+ * database side of order placement is measured by the load tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lineCount;
+
+    private List<OrderItem> orderItems;
+
+    @Setup
+    public void setUp() {
+        orderItems = BenchmarkFixtures.orderItems(new Order(), lineCount);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalAmount() {
+        return OrderService.calculateTotalAmount(orderItems);
+    }
+}
@@ -0,0 +1,50 @@
+package com.newton.dream_shops.util.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyGeneratorBenchmark {
+
+    private final CacheKeyGenerator cacheKeyGenerator = new CacheKeyGenerator();
+
+    private String category = "Electronics";
+    private String brand = "Acme";
+    private String cursor = "MTIzNA";
+    private Integer limit = 20;
+    private Long productId = 1234L;
+
+    @Benchmark
+    public String generateKeyStrings() {
+        return cacheKeyGenerator.generateKey(category, brand);
+    }
+
+    @Benchmark
+    public String generateKeyObjects() {
+        return cacheKeyGenerator.generateKey(cursor, limit);
+    }
+
+    @Benchmark
+    public String generateProductKey() {
+        return cacheKeyGenerator.generateProductKey("by_category", category, brand);
+    }
+
+    @Benchmark
+    public String generateSimpleKey() {
+        return cacheKeyGenerator.generateSimpleKey(productId);
+    }
+}
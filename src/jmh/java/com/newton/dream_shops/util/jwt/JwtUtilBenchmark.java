@@ -0,0 +1,107 @@
+package com.newton.dream_shops.util.jwt;
+
+import com.newton.dream_shops.models.auth.User;
+import com.newton.dream_shops.security.jwt.JwtUserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request from its access token. The legacy
+ * benchmark reproduces the filter before it kept the parsed claims, which
+ * verified the signature once per claim it needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String jwtSecret;
+    private String token;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        jwtSecret = Base64.getEncoder().encodeToString(new byte[64]);
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", jwtSecret);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtil, "jwtRefreshExpirationMs", 86_400_000);
+        jwtUtil.init();
+
+        user = new User();
+        user.setId(42L);
+        user.setUsername("benchmark-user");
+        user.setEmail("benchmark@example.com");
+        user.setTokenVersion(3);
+        token = jwtUtil.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(user);
+    }
+
+    /**
+     * What the filter does per request in stateless mode, less the Redis
+     * token version lookup
+     */
+    @Benchmark
+    public boolean statelessFilterPath() {
+        Claims claims = jwtUtil.parseClaims(token);
+        JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(claims);
+        return jwtUtil.validateUserClaims(claims, principal);
+    }
+
+    /**
+     * The claim reads of the filter before the claims were kept: validation,
+     * username, user id and expiry, each decoding the secret and building a
+     * parser for its own signature check
+     */
+    @Benchmark
+    public void legacyParsePerClaim(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token) != null);
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("userId"));
+        blackhole.consume(legacyParse(token).getExpiration().before(new Date()));
+    }
+
+    private Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
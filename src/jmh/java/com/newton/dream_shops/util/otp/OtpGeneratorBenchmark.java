@@ -0,0 +1,42 @@
+package com.newton.dream_shops.util.otp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpGeneratorBenchmark {
+
+    private final OtpGenerator otpGenerator = new OtpGenerator();
+
+    private String validOtp = "A1B2C3";
+    private String invalidOtp = "a1b2c3";
+
+    @Benchmark
+    public String generateOtp() {
+        return otpGenerator.generateOtp();
+    }
+
+    @Benchmark
+    public boolean isValidOtpFormatValid() {
+        return otpGenerator.isValidOtpFormat(validOtp);
+    }
+
+    @Benchmark
+    public boolean isValidOtpFormatInvalid() {
+        return otpGenerator.isValidOtpFormat(invalidOtp);
+    }
+}
@@ -0,0 +1,148 @@
+package com.newton.dream_shops.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records which cache entries depend on which tags (e.g. "brand:Apple" or
+ * "product:42") so that a write can evict exactly the entries it affects
+ * instead of clearing whole caches.
+ * Tag sets live in Redis so that every node sees the same dependencies, and
+ * expire together with the entries they index.
+ * <p>
+ * Invalidation waits for the writing transaction to commit and then reads
+ * the tag sets, evicts and trims the sets in that order. An entry loaded
+ * from the old data before the commit is therefore always tagged by the time
+ * its tags are read, and a tag recorded after the read is never dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheTagRegistry {
+
+    private static final String TAG_KEY_PREFIX = "dream-shops:cache-tags:";
+    private static final String ENTRY_SEPARATOR = "::";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+
+    @Value("${app.cache.ttl.products:600}")
+    private long tagTtlSeconds;
+
+    /**
+     * Record that the entry stored under the given key depends on the given
+     * tags. Call this from the {@code @Cacheable} method itself, so that the
+     * tags are in Redis before the entry is put.
+     *
+     * @param cacheName The cache holding the entry
+     * @param key       The cache key, exactly as used by the @Cacheable method
+     * @param tags      The tags the entry depends on
+     */
+    public void tag(String cacheName, String key, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        byte[] entry = (cacheName + ENTRY_SEPARATOR + key).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String tag : tags) {
+                    byte[] tagKey = (TAG_KEY_PREFIX + tag).getBytes(StandardCharsets.UTF_8);
+                    connection.setCommands().sAdd(tagKey, entry);
+                    connection.keyCommands().expire(tagKey, tagTtlSeconds);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // Without the tag the entry is only refreshed by its TTL
+            log.warn("Failed to record cache tags for {}{}{}: {}", cacheName, ENTRY_SEPARATOR, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Evict every cache entry that depends on any of the given tags, once the
+     * current transaction commits
+     *
+     * @param tags The tags touched by a write
+     */
+    public void invalidate(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<String> tagKeys = tags.stream().distinct().map(tag -> TAG_KEY_PREFIX + tag).toList();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateNow(tagKeys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateNow(tagKeys);
+            }
+        });
+    }
+
+    private void invalidateNow(List<String> tagKeys) {
+        List<Object> memberSets = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String tagKey : tagKeys) {
+                connection.setCommands().sMembers(tagKey.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        Map<String, Set<String>> membersByTagKey = new LinkedHashMap<>();
+        Set<String> entries = new LinkedHashSet<>();
+        for (int i = 0; i < tagKeys.size(); i++) {
+            if (memberSets.get(i) instanceof Collection<?> collection && !collection.isEmpty()) {
+                Set<String> members = new LinkedHashSet<>();
+                collection.forEach(member -> members.add(String.valueOf(member)));
+                membersByTagKey.put(tagKeys.get(i), members);
+                entries.addAll(members);
+            }
+        }
+
+        for (String entry : entries) {
+            int separator = entry.indexOf(ENTRY_SEPARATOR);
+            if (separator < 0) {
+                continue;
+            }
+            Cache cache = cacheManager.getCache(entry.substring(0, separator));
+            if (cache != null) {
+                // Immediate even on a transaction-aware cache; the write has already committed
+                cache.evictIfPresent(entry.substring(separator + ENTRY_SEPARATOR.length()));
+            }
+        }
+
+        // Only drop the members just evicted, so an entry tagged since the read keeps its tag
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            membersByTagKey.forEach((tagKey, members) -> connection.setCommands().sRem(
+                    tagKey.getBytes(StandardCharsets.UTF_8),
+                    members.stream().map(member -> member.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new)));
+            return null;
+        });
+        log.debug("Invalidated {} cache entries for tags {}", entries.size(), tagKeys);
+    }
+
+    public void invalidate(Collection<String> before, Collection<String> after) {
+        List<String> tags = new ArrayList<>(before);
+        tags.addAll(after);
+        invalidate(tags);
+    }
+}
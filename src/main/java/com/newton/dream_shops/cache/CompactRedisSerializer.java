@@ -0,0 +1,154 @@
+package com.newton.dream_shops.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary cache value serializer. Values are written with a binary Jackson
+ * mapper (Smile) and the value's type is recorded once in a small header
+ * instead of on every object, so a list of a thousand products carries one
+ * class name rather than a thousand. Payloads above the compression
+ * threshold are LZ4 compressed.
+ * <p>
+ * Layout: magic, flags, type length (2 bytes), type, [original length
+ * (4 bytes) if compressed], payload. Values that do not start with the
+ * magic byte were written by the fallback serializer and are read with it,
+ * so existing entries stay readable until they expire.
+ * <p>
+ * Collections are read back as {@link ArrayList}s of their first element's
+ * type; only lists of a single element type should be cached through it.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xD5;
+    private static final byte FLAG_LZ4 = 0x01;
+
+    private static final String LIST_PREFIX = "L:";
+    private static final String OBJECT_PREFIX = "O:";
+    private static final List<String> ALLOWED_PACKAGES = List.of("com.newton.dream_shops.", "java.");
+
+    private final ObjectMapper mapper;
+    private final RedisSerializer<Object> fallback;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    /**
+     * @param mapper               A binary (Smile) object mapper
+     * @param fallback             Reads values written before this serializer was enabled
+     * @param compressionThreshold Payload size in bytes above which values are compressed; 0 disables compression
+     */
+    public CompactRedisSerializer(ObjectMapper mapper, RedisSerializer<Object> fallback, int compressionThreshold) {
+        this.mapper = mapper;
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        try {
+            byte[] type = typeDescriptor(value).getBytes(StandardCharsets.UTF_8);
+            byte[] payload = mapper.writeValueAsBytes(value);
+            boolean compress = compressionThreshold > 0 && payload.length > compressionThreshold;
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + type.length + 8);
+            out.write(MAGIC);
+            out.write(compress ? FLAG_LZ4 : 0);
+            out.write(type.length >>> 8);
+            out.write(type.length);
+            out.write(type);
+            if (compress) {
+                out.write(ByteBuffer.allocate(4).putInt(payload.length).array());
+                out.write(compressor.compress(payload));
+            } else {
+                out.write(payload);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.get();
+            byte flags = buffer.get();
+            byte[] type = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(type);
+
+            byte[] payload;
+            if ((flags & FLAG_LZ4) != 0) {
+                int originalLength = buffer.getInt();
+                byte[] compressed = new byte[buffer.remaining()];
+                buffer.get(compressed);
+                payload = decompressor.decompress(compressed, originalLength);
+            } else {
+                payload = new byte[buffer.remaining()];
+                buffer.get(payload);
+            }
+
+            return mapper.readValue(payload, toJavaType(new String(type, StandardCharsets.UTF_8)));
+        } catch (IOException | RuntimeException | ClassNotFoundException e) {
+            throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    private static String typeDescriptor(Object value) {
+        if (value instanceof Collection<?> collection) {
+            Object first = collection.isEmpty() ? null : collection.iterator().next();
+            return LIST_PREFIX + (first == null ? "" : first.getClass().getName());
+        }
+        return OBJECT_PREFIX + value.getClass().getName();
+    }
+
+    private JavaType toJavaType(String descriptor) throws ClassNotFoundException {
+        if (descriptor.startsWith(LIST_PREFIX)) {
+            String elementType = descriptor.substring(LIST_PREFIX.length());
+            Class<?> elementClass = elementType.isEmpty() ? Object.class : loadClass(elementType);
+            return mapper.getTypeFactory().constructCollectionType(ArrayList.class, elementClass);
+        }
+        if (descriptor.startsWith(OBJECT_PREFIX)) {
+            return mapper.getTypeFactory().constructType(loadClass(descriptor.substring(OBJECT_PREFIX.length())));
+        }
+        throw new ClassNotFoundException("Unknown type descriptor " + descriptor);
+    }
+
+    private Class<?> loadClass(String className) throws ClassNotFoundException {
+        // Only instantiate our own types and JDK value types from cache data
+        if (ALLOWED_PACKAGES.stream().noneMatch(className::startsWith)) {
+            throw new ClassNotFoundException("Type not allowed in cache values: " + className);
+        }
+        return Class.forName(className, false, getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,39 @@
+package com.newton.dream_shops.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shortens each entry's TTL by a random fraction of the base TTL so that
+ * entries written together do not all expire in the same instant
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+    private final Duration baseTtl;
+    private final double jitter;
+
+    public JitteredTtlFunction(Duration baseTtl, double jitter) {
+        this.baseTtl = baseTtl;
+        this.jitter = Math.max(0.0, Math.min(jitter, 1.0));
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, @Nullable Object value) {
+        if (jitter == 0.0) {
+            return baseTtl;
+        }
+        long baseMillis = baseTtl.toMillis();
+        long reduction = (long) (baseMillis * jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(baseMillis - reduction);
+    }
+
+    /**
+     * The shortest TTL an entry can be given
+     */
+    public Duration getMinimumTtl() {
+        return Duration.ofMillis((long) (baseTtl.toMillis() * (1.0 - jitter)));
+    }
+}
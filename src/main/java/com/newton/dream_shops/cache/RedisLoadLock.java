@@ -0,0 +1,81 @@
+package com.newton.dream_shops.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived Redis lock that lets one node at a time recompute a cache
+ * entry or run a scheduled job. The lock expires on its own if the holder
+ * dies mid-load.
+ * <p>
+ * A cache load lock fails open, since loading without coordination only
+ * costs a duplicate query. A job lock fails closed: jobs that must not run
+ * on two nodes at once skip their run while Redis is unreachable.
+ */
+@Slf4j
+public class RedisLoadLock {
+
+    private static final String DEFAULT_KEY_PREFIX = "dream-shops:cache-load-lock:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final Duration lockTtl;
+    private final boolean failOpen;
+
+    /**
+     * A cache load lock, acquired anyway when Redis cannot be reached
+     */
+    public RedisLoadLock(StringRedisTemplate redisTemplate, Duration lockTtl) {
+        this(redisTemplate, DEFAULT_KEY_PREFIX, lockTtl, true);
+    }
+
+    /**
+     * A job lock, never acquired when Redis cannot be reached
+     */
+    public RedisLoadLock(StringRedisTemplate redisTemplate, String keyPrefix, Duration lockTtl) {
+        this(redisTemplate, keyPrefix, lockTtl, false);
+    }
+
+    private RedisLoadLock(StringRedisTemplate redisTemplate, String keyPrefix, Duration lockTtl, boolean failOpen) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.lockTtl = lockTtl;
+        this.failOpen = failOpen;
+    }
+
+    /**
+     * @return A token to pass to {@link #release}, or null if another node
+     * holds the lock, or if Redis failed and this lock fails closed
+     */
+    @Nullable
+    public String tryAcquire(String name) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(keyPrefix + name, token, lockTtl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.warn("Failed to acquire lock {}: {}", name, e.getMessage());
+            // A cache load falls back to running without cross-node coordination
+            return failOpen ? token : null;
+        }
+    }
+
+    public void release(String name, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(keyPrefix + name), token);
+        } catch (Exception e) {
+            log.warn("Failed to release lock {}: {}", name, e.getMessage());
+        }
+    }
+}
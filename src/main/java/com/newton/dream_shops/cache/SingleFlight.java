@@ -0,0 +1,80 @@
+package com.newton.dream_shops.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs at most one loader per key at a time on this node. Callers that ask
+ * for a key while its loader is running wait for that result instead of
+ * starting a second load.
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Load the value for the key, or wait for the load already in progress
+     *
+     * @param key    The key being loaded
+     * @param loader Computes the value; only called by the first caller
+     * @return The loaded value
+     * @throws Exception The exception thrown by the loader, for every waiting caller
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Callable<T> loader) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+        return (T) run(key, future, loader);
+    }
+
+    /**
+     * Start a load for the key unless one is already running; never waits
+     *
+     * @return True if this caller ran the loader
+     */
+    public boolean tryExecute(String key, Callable<?> loader) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, future) != null) {
+            return false;
+        }
+        run(key, future, loader);
+        return true;
+    }
+
+    private Object run(String key, CompletableFuture<Object> future, Callable<?> loader) throws Exception {
+        try {
+            Object value = loader.call();
+            future.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
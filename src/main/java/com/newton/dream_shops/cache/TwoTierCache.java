@@ -0,0 +1,464 @@
+package com.newton.dream_shops.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache that keeps a bounded in-process copy (L1) of entries held in a
+ * shared remote cache (L2). Writes go to L2 first and then drop the L1 copy
+ * on every node through the owning {@link TwoTierCacheManager}; values read
+ * or loaded from L2 are only copied into this node's L1.
+ * When no local cache is configured the remote cache is used directly.
+ * <p>
+ * Every eviction stamps its key (by stripe) with a rising version. A read
+ * that started before the key's latest eviction does not copy its value
+ * into L1, since that value may predate the eviction.
+ * <p>
+ * Synchronized lookups ({@code @Cacheable(sync = true)}) are loaded at most
+ * once per key on this node, optionally once per key across nodes through a
+ * {@link RedisLoadLock}, and hot keys loaded here are recomputed shortly
+ * before they expire (XFetch) so that they do not all miss at once. The
+ * lock is only taken for caches whose values are shared through a remote
+ * tier with a TTL; local-only caches have nothing to wait for on another
+ * node and load directly.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    private static final long LOCK_POLL_INTERVAL_MS = 50;
+    private static final String REFRESH_FLIGHT_PREFIX = "refresh:";
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final String name;
+    @Nullable
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final Cache remoteCache;
+    private final TwoTierCacheManager cacheManager;
+    private final SingleFlight singleFlight = new SingleFlight();
+    @Nullable
+    private final RedisLoadLock loadLock;
+    private final Duration lockWait;
+    @Nullable
+    private final com.github.benmanes.caffeine.cache.Cache<String, LoadStamp> loadStamps;
+    @Nullable
+    private final Duration remoteTtl;
+    private final double earlyRefreshBeta;
+    @Nullable
+    private final TwoTierCacheMetrics metrics;
+
+    private final AtomicLong evictionClock = new AtomicLong();
+    private final AtomicLongArray evictionStamps = new AtomicLongArray(EVICTION_STRIPES);
+    private volatile long clearStamp;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    TwoTierCache(String name,
+                 @Nullable com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+                 Cache remoteCache,
+                 TwoTierCacheManager cacheManager,
+                 @Nullable RedisLoadLock loadLock,
+                 Duration lockWait,
+                 @Nullable Duration remoteTtl,
+                 double earlyRefreshBeta,
+                 @Nullable TwoTierCacheMetrics metrics) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+        this.loadLock = remoteTtl != null && !(remoteCache instanceof NoOpCache) ? loadLock : null;
+        this.lockWait = lockWait;
+        this.remoteTtl = remoteTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.metrics = metrics;
+        this.loadStamps = remoteTtl != null && earlyRefreshBeta > 0
+                ? Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(remoteTtl).build()
+                : null;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    public boolean isNearCacheEnabled() {
+        return localCache != null;
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        if (localCache != null) {
+            Object value = localCache.getIfPresent(localKey);
+            if (value != null) {
+                localHits.increment();
+                return new SimpleValueWrapper(value);
+            }
+            localMisses.increment();
+        }
+
+        long version = evictionClock.get();
+        ValueWrapper wrapper = getRemote(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+
+        remoteHits.increment();
+        fillLocal(localKey, wrapper.get(), version);
+        return wrapper;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            refreshIfExpiringSoon(key, valueLoader);
+            return (T) wrapper.get();
+        }
+
+        try {
+            return singleFlight.execute(toLocalKey(key), () -> {
+                // A load that finished just before this one started may
+                // already have filled the cache
+                ValueWrapper loaded = lookup(key);
+                return loaded != null ? (T) loaded.get() : loadWithLock(key, valueLoader);
+            });
+        } catch (ValueRetrievalException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private <T> T loadWithLock(Object key, Callable<T> valueLoader) throws Exception {
+        if (loadLock == null) {
+            return load(key, valueLoader);
+        }
+
+        String lockName = name + ":" + toLocalKey(key);
+        String token = loadLock.tryAcquire(lockName);
+        if (token == null) {
+            // Another node is loading this key; wait briefly for its result
+            T value = awaitRemoteValue(key);
+            if (value != null) {
+                return value;
+            }
+            return load(key, valueLoader);
+        }
+
+        try {
+            return load(key, valueLoader);
+        } finally {
+            loadLock.release(lockName, token);
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> T awaitRemoteValue(Object key) throws InterruptedException {
+        long deadline = System.nanoTime() + lockWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(LOCK_POLL_INTERVAL_MS);
+            ValueWrapper wrapper = lookup(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private ValueWrapper getRemote(Object key) {
+        if (metrics == null) {
+            return remoteCache.get(key);
+        }
+        long start = System.nanoTime();
+        try {
+            return remoteCache.get(key);
+        } finally {
+            metrics.recordRemoteGet(System.nanoTime() - start);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) throws Exception {
+        long version = evictionClock.get();
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            if (metrics != null) {
+                metrics.recordLoad(System.nanoTime() - start, false);
+            }
+            throw e;
+        }
+        long loadNanos = System.nanoTime() - start;
+        if (metrics != null) {
+            metrics.recordLoad(loadNanos, true);
+        }
+
+        // A load is not a change, so other nodes keep their L1 copies
+        remoteCache.put(key, value);
+        puts.increment();
+        fillLocal(toLocalKey(key), value, version);
+        if (loadStamps != null) {
+            loadStamps.put(toLocalKey(key), new LoadStamp(System.nanoTime() + remoteTtl.toNanos(), loadNanos));
+        }
+        return value;
+    }
+
+    /**
+     * XFetch: recompute a key loaded on this node with a probability that
+     * rises as its expiry approaches, weighted by how long it took to load.
+     * Only one caller refreshes; everyone else keeps the cached value.
+     */
+    private <T> void refreshIfExpiringSoon(Object key, Callable<T> valueLoader) {
+        if (loadStamps == null) {
+            return;
+        }
+        String localKey = toLocalKey(key);
+        LoadStamp stamp = loadStamps.getIfPresent(localKey);
+        if (stamp == null) {
+            return;
+        }
+
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        long earlyBy = (long) (-stamp.loadNanos() * earlyRefreshBeta * Math.log(random));
+        if (System.nanoTime() + earlyBy < stamp.expiresAtNanos()) {
+            return;
+        }
+
+        try {
+            singleFlight.tryExecute(REFRESH_FLIGHT_PREFIX + localKey, () -> load(key, valueLoader));
+        } catch (Exception e) {
+            log.warn("Early refresh of {}::{} failed: {}", name, localKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Lookup that does not count towards the hit/miss statistics
+     */
+    @Nullable
+    private ValueWrapper lookup(Object key) {
+        if (localCache != null) {
+            Object value = localCache.getIfPresent(toLocalKey(key));
+            if (value != null) {
+                return new SimpleValueWrapper(value);
+            }
+        }
+        return remoteCache.get(key);
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        remoteCache.put(key, value);
+        puts.increment();
+        if (localCache != null) {
+            String localKey = toLocalKey(key);
+            markEvicted(localKey);
+            if (value != null) {
+                localCache.put(localKey, value);
+            } else {
+                localCache.invalidate(localKey);
+            }
+            cacheManager.publishEvict(name, localKey);
+        }
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        if (existing == null) {
+            puts.increment();
+        }
+        if (localCache != null) {
+            String localKey = toLocalKey(key);
+            markEvicted(localKey);
+            localCache.invalidate(localKey);
+            cacheManager.publishEvict(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        evictions.increment();
+        evictLocalAndPublish(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remoteCache.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        evictLocalAndPublish(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        evictions.increment();
+        clearLocalAndPublish();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remoteCache.invalidate();
+        clearLocalAndPublish();
+        return invalidated;
+    }
+
+    /**
+     * Drop a single L1 entry; called when another node changed the entry
+     */
+    void evictLocal(String localKey) {
+        if (localCache != null) {
+            markEvicted(localKey);
+            localCache.invalidate(localKey);
+        }
+    }
+
+    /**
+     * Drop every L1 entry; called when another node cleared the cache
+     */
+    void clearLocal() {
+        if (localCache != null) {
+            clearStamp = evictionClock.incrementAndGet();
+            localCache.invalidateAll();
+        }
+    }
+
+    private void evictLocalAndPublish(Object key) {
+        if (localCache != null) {
+            String localKey = toLocalKey(key);
+            markEvicted(localKey);
+            localCache.invalidate(localKey);
+            cacheManager.publishEvict(name, localKey);
+        }
+    }
+
+    private void clearLocalAndPublish() {
+        if (localCache != null) {
+            clearStamp = evictionClock.incrementAndGet();
+            localCache.invalidateAll();
+            cacheManager.publishClear(name);
+        }
+    }
+
+    /**
+     * Stamp the key before its L1 entry is dropped, so a read in flight sees
+     * the stamp once the entry is gone
+     */
+    private void markEvicted(String localKey) {
+        evictionStamps.set(stripe(localKey), evictionClock.incrementAndGet());
+    }
+
+    /**
+     * Copy a value read from L2 or loaded into L1, unless the key was evicted
+     * after {@code version} was read. Checked under the entry's lock, so an
+     * eviction cannot slip in between the check and the copy.
+     */
+    private void fillLocal(String localKey, @Nullable Object value, long version) {
+        if (localCache == null || value == null) {
+            return;
+        }
+        localCache.asMap().compute(localKey, (k, current) ->
+                evictedSince(localKey, version) ? current : value);
+    }
+
+    private boolean evictedSince(String localKey, long version) {
+        return clearStamp > version || evictionStamps.get(stripe(localKey)) > version;
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), EVICTION_STRIPES);
+    }
+
+    /**
+     * L1 entries and invalidation messages use the same string form of the key
+     * that the Redis cache writes, so every node resolves a key identically
+     */
+    private String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getLocalMisses() {
+        return localMisses.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    public long getHits() {
+        return localHits.sum() + remoteHits.sum();
+    }
+
+    public long getMisses() {
+        return remoteMisses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private record LoadStamp(long expiresAtNanos, long loadNanos) {
+    }
+
+    public long getLocalSize() {
+        return localCache != null ? localCache.estimatedSize() : 0;
+    }
+}
@@ -0,0 +1,244 @@
+package com.newton.dream_shops.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Cache manager that fronts the Redis cache manager with a per-node
+ * in-process cache for the configured cache names. Evictions are broadcast
+ * over Redis pub/sub so that every node drops its local copy.
+ * Local-only caches skip Redis entirely and keep just the in-process tier.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "dream-shops:cache-invalidation";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+    private static final String MESSAGE_SEPARATOR = "\n";
+
+    private final RedisCacheManager remoteCacheManager;
+    private final TwoTierCacheSettings settings;
+    private final Set<String> nearCacheNames;
+    private final Set<String> localCacheNames;
+    @Nullable
+    private final RedisLoadLock loadLock;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean transactionAware;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> decoratedCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheManager remoteCacheManager,
+                               TwoTierCacheSettings settings,
+                               StringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry,
+                               boolean transactionAware) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.settings = settings;
+        this.nearCacheNames = Set.copyOf(settings.getNearCacheNames());
+        this.localCacheNames = Set.copyOf(settings.getLocalCacheNames());
+        this.loadLock = settings.isDistributedLockEnabled()
+                ? new RedisLoadLock(redisTemplate, settings.getDistributedLockTtl())
+                : null;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.transactionAware = transactionAware;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(String name) {
+        return decoratedCaches.computeIfAbsent(name, cacheName -> {
+            boolean localOnly = localCacheNames.contains(cacheName);
+            Cache remoteCache = localOnly ? new NoOpCache(cacheName) : remoteCacheManager.getCache(cacheName);
+            if (remoteCache == null) {
+                return null;
+            }
+            TwoTierCache cache = new TwoTierCache(
+                    cacheName,
+                    createLocalCache(cacheName),
+                    remoteCache,
+                    this,
+                    loadLock,
+                    settings.getDistributedLockWait(),
+                    localOnly ? null : minimumRemoteTtl(cacheName),
+                    settings.getEarlyRefreshBeta(),
+                    settings.isMetricsEnabled()
+                            ? new TwoTierCacheMetrics(cacheName, meterRegistry, settings.isMetricsHistogram())
+                            : null);
+            caches.put(cacheName, cache);
+            registerMetrics(cache);
+            return transactionAware ? new TransactionAwareCacheDecorator(cache) : cache;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    public Collection<TwoTierCache> getTwoTierCaches() {
+        return caches.values();
+    }
+
+    /**
+     * Create the named caches up front so their meters are published before
+     * the first request uses them
+     */
+    public void initializeCaches(Collection<String> cacheNames) {
+        cacheNames.forEach(this::getCache);
+    }
+
+    /**
+     * Early refreshes are scheduled against the shortest TTL an entry can get
+     * after jitter, so they never fire after the entry is already gone
+     */
+    @Nullable
+    private Duration minimumRemoteTtl(String cacheName) {
+        Duration ttl = settings.getCacheTtls().get(cacheName);
+        if (ttl == null) {
+            return null;
+        }
+        return new JitteredTtlFunction(ttl, settings.getTtlJitter()).getMinimumTtl();
+    }
+
+    @Nullable
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> createLocalCache(String cacheName) {
+        Duration ttl;
+        if (localCacheNames.contains(cacheName)) {
+            ttl = settings.getCacheTtls().getOrDefault(cacheName, settings.getNearCacheTtl());
+        } else if (nearCacheNames.contains(cacheName)) {
+            ttl = settings.getNearCacheTtl();
+        } else {
+            return null;
+        }
+        // Weigh list values by their size so a handful of large listings
+        // cannot crowd out thousands of single-entity entries
+        return Caffeine.newBuilder()
+                .maximumWeight(settings.getNearCacheMaxWeight())
+                .weigher((String key, Object value) -> value instanceof Collection<?> collection
+                        ? Math.max(1, collection.size())
+                        : 1)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(String.join(MESSAGE_SEPARATOR, nodeId, EVICT, cacheName, key));
+    }
+
+    void publishClear(String cacheName) {
+        publish(String.join(MESSAGE_SEPARATOR, nodeId, CLEAR, cacheName, ""));
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            // Local entries still expire after the near cache TTL
+            log.warn("Failed to publish cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(MESSAGE_SEPARATOR, 4);
+        if (parts.length != 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+
+        if (CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else if (EVICT.equals(parts[1])) {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    private void registerMetrics(TwoTierCache cache) {
+        String cacheName = cache.getName();
+
+        // Same names as Micrometer's own cache binders, so standard dashboards work
+        FunctionCounter.builder("cache.gets", cache, TwoTierCache::getHits)
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .description("Lookups served from either tier")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, TwoTierCache::getMisses)
+                .tag("cache", cacheName)
+                .tag("result", "miss")
+                .description("Lookups that missed both tiers")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.puts", cache, TwoTierCache::getPuts)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, TwoTierCache::getEvictions)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+
+        if (!cache.isNearCacheEnabled()) {
+            return;
+        }
+
+        registerTierCounter(cache, "l1", "hit", TwoTierCache::getLocalHits);
+        registerTierCounter(cache, "l1", "miss", TwoTierCache::getLocalMisses);
+        registerTierCounter(cache, "l2", "hit", TwoTierCache::getRemoteHits);
+        registerTierCounter(cache, "l2", "miss", TwoTierCache::getRemoteMisses);
+
+        Gauge.builder("cache.tier.hit.ratio", cache, c -> ratio(c.getLocalHits(), c.getLocalMisses()))
+                .tag("cache", cacheName)
+                .tag("tier", "l1")
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.hit.ratio", cache, c -> ratio(c.getRemoteHits(), c.getRemoteMisses()))
+                .tag("cache", cacheName)
+                .tag("tier", "l2")
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.size", cache, TwoTierCache::getLocalSize)
+                .tag("cache", cacheName)
+                .tag("tier", "l1")
+                .register(meterRegistry);
+    }
+
+    private void registerTierCounter(TwoTierCache cache, String tier, String result,
+                                     ToDoubleFunction<TwoTierCache> count) {
+        FunctionCounter.builder("cache.tier.gets", cache, count)
+                .tag("cache", cache.getName())
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,42 @@
+package com.newton.dream_shops.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers of one {@link TwoTierCache}. Counts are kept by the cache
+ * itself and exported by {@link TwoTierCacheManager}; only operations whose
+ * duration is worth a histogram are timed here.
+ */
+class TwoTierCacheMetrics {
+
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+    private final Timer remoteGets;
+
+    TwoTierCacheMetrics(String cacheName, MeterRegistry meterRegistry, boolean histogram) {
+        this.loadSuccess = timer("cache.load", cacheName, histogram, meterRegistry, "result", "success");
+        this.loadFailure = timer("cache.load", cacheName, histogram, meterRegistry, "result", "failure");
+        this.remoteGets = timer("cache.remote.gets", cacheName, histogram, meterRegistry, "tier", "l2");
+    }
+
+    private static Timer timer(String name, String cacheName, boolean histogram, MeterRegistry meterRegistry,
+                               String tag, String tagValue) {
+        return Timer.builder(name)
+                .tag("cache", cacheName)
+                .tag(tag, tagValue)
+                .publishPercentileHistogram(histogram)
+                .publishPercentiles(histogram ? new double[] { 0.5, 0.95, 0.99 } : new double[0])
+                .register(meterRegistry);
+    }
+
+    void recordLoad(long nanos, boolean success) {
+        (success ? loadSuccess : loadFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordRemoteGet(long nanos) {
+        remoteGets.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,48 @@
+package com.newton.dream_shops.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Builder
+public class TwoTierCacheSettings {
+    private final Set<String> nearCacheNames;
+    private final long nearCacheMaxWeight;
+    private final Duration nearCacheTtl;
+
+    /**
+     * Caches kept only in process, never written to Redis; their entries live
+     * for the cache's own TTL and are evicted on every node through pub/sub
+     */
+    private final Set<String> localCacheNames;
+
+    /**
+     * Base Redis TTL per cache name, used to schedule early refreshes
+     */
+    private final Map<String, Duration> cacheTtls;
+    private final double ttlJitter;
+
+    /**
+     * XFetch beta; 0 disables probabilistic early refresh
+     */
+    private final double earlyRefreshBeta;
+
+    private final boolean distributedLockEnabled;
+    private final Duration distributedLockTtl;
+    private final Duration distributedLockWait;
+
+    /**
+     * When off no cache operation is timed; the hit, miss, put and eviction
+     * counts are kept either way
+     */
+    private final boolean metricsEnabled;
+
+    /**
+     * Publish latency histogram buckets and percentiles for the cache timers
+     */
+    private final boolean metricsHistogram;
+}
@@ -0,0 +1,60 @@
+package com.newton.dream_shops.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${app.orders.async.pool-size:4}")
+    private int orderPoolSize;
+
+    @Value("${app.orders.async.queue-capacity:200}")
+    private int orderQueueCapacity;
+
+    @Value("${app.images.upload.pool-size:8}")
+    private int imageUploadPoolSize;
+
+    @Value("${app.images.upload.queue-capacity:50}")
+    private int imageUploadQueueCapacity;
+
+    /**
+     * Bounded pool for accepted order requests. When the queue is full new
+     * requests stay accepted and are picked up by the recovery sweep instead.
+     */
+    @Bean("orderPlacementExecutor")
+    public ThreadPoolTaskExecutor orderPlacementExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(orderPoolSize);
+        executor.setMaxPoolSize(orderPoolSize);
+        executor.setQueueCapacity(orderQueueCapacity);
+        executor.setThreadNamePrefix("order-placement-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool for uploading the files of an image request concurrently.
+     * When it is saturated the request thread uploads the file itself, which
+     * slows callers down instead of failing them.
+     */
+    @Bean("imageUploadExecutor")
+    public ThreadPoolTaskExecutor imageUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageUploadPoolSize);
+        executor.setMaxPoolSize(imageUploadPoolSize);
+        executor.setQueueCapacity(imageUploadQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("image-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
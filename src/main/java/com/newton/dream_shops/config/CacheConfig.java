@@ -2,10 +2,11 @@ package com.newton.dream_shops.config;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,13 +15,22 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.newton.dream_shops.cache.CompactRedisSerializer;
+import com.newton.dream_shops.cache.JitteredTtlFunction;
+import com.newton.dream_shops.cache.TwoTierCacheManager;
+import com.newton.dream_shops.cache.TwoTierCacheSettings;
 import com.newton.dream_shops.constants.CacheConstants;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -37,8 +47,50 @@ public class CacheConfig {
     @Value("${app.cache.ttl.users:300}")
     private int userCacheTtl;
 
+    @Value("${app.cache.near.caches:product_by_id,categories}")
+    private List<String> nearCacheNames;
+
+    @Value("${app.cache.near.max-weight:10000}")
+    private long nearCacheMaxWeight;
+
+    @Value("${app.cache.near.ttl:60}")
+    private int nearCacheTtl;
+
+    @Value("${app.cache.local.caches:users}")
+    private List<String> localCacheNames;
+
+    @Value("${app.cache.ttl-jitter:0.1}")
+    private double ttlJitter;
+
+    @Value("${app.cache.early-refresh.beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${app.cache.distributed-lock.enabled:false}")
+    private boolean distributedLockEnabled;
+
+    @Value("${app.cache.distributed-lock.ttl:10}")
+    private int distributedLockTtl;
+
+    @Value("${app.cache.distributed-lock.wait-ms:2000}")
+    private long distributedLockWaitMs;
+
+    @Value("${app.cache.metrics.enabled:true}")
+    private boolean metricsEnabled;
+
+    @Value("${app.cache.metrics.histogram:true}")
+    private boolean metricsHistogram;
+
+    @Value("${app.cache.serializer.compact-caches:}")
+    private List<String> compactCacheNames;
+
+    @Value("${app.cache.serializer.compression-threshold:1024}")
+    private int compressionThreshold;
+
     private ObjectMapper createRedisObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configureRedisObjectMapper(new ObjectMapper());
+    }
+
+    private ObjectMapper configureRedisObjectMapper(ObjectMapper mapper) {
         mapper.registerModule(new JavaTimeModule());
         mapper.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         mapper.configure(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
@@ -50,6 +102,14 @@ public class CacheConfig {
         return new GenericJackson2JsonRedisSerializer(createRedisObjectMapper());
     }
 
+    @Bean("compactCacheValueSerializer")
+    public CompactRedisSerializer compactCacheValueSerializer() {
+        return new CompactRedisSerializer(
+                configureRedisObjectMapper(new SmileMapper()),
+                cacheValueSerializer(),
+                compressionThreshold);
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -67,7 +127,9 @@ public class CacheConfig {
 
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                           StringRedisTemplate stringRedisTemplate,
+                                           MeterRegistry meterRegistry) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(productCacheTtl))
                 .serializeKeysWith(
@@ -75,53 +137,84 @@ public class CacheConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer()))
                 .disableCachingNullValues();
 
-        Map<String, RedisCacheConfiguration> cacheConfigurations = createCacheConfigurations(defaultConfig);
-
-        return RedisCacheManager.builder(connectionFactory)
+        Map<String, Duration> cacheTtls = createCacheTtls();
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        RedisCacheConfiguration compactConfig = defaultConfig.serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(compactCacheValueSerializer()));
+        cacheTtls.forEach((cacheName, ttl) -> {
+            RedisCacheConfiguration config = compactCacheNames.contains(cacheName) ? compactConfig : defaultConfig;
+            cacheConfigurations.put(cacheName, config.entryTtl(new JitteredTtlFunction(ttl, ttlJitter)));
+        });
+
+        // Transaction awareness is applied by the two-tier manager so that the
+        // local and remote evictions are deferred to the same commit
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        TwoTierCacheSettings settings = TwoTierCacheSettings.builder()
+                .nearCacheNames(new HashSet<>(nearCacheNames))
+                .nearCacheMaxWeight(nearCacheMaxWeight)
+                .nearCacheTtl(Duration.ofSeconds(nearCacheTtl))
+                .localCacheNames(new HashSet<>(localCacheNames))
+                .cacheTtls(cacheTtls)
+                .ttlJitter(ttlJitter)
+                .earlyRefreshBeta(earlyRefreshBeta)
+                .distributedLockEnabled(distributedLockEnabled)
+                .distributedLockTtl(Duration.ofSeconds(distributedLockTtl))
+                .distributedLockWait(Duration.ofMillis(distributedLockWaitMs))
+                .metricsEnabled(metricsEnabled)
+                .metricsHistogram(metricsHistogram)
+                .build();
+
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(
+                redisCacheManager,
+                settings,
+                stringRedisTemplate,
+                meterRegistry,
+                true);
+        cacheManager.initializeCaches(cacheTtls.keySet());
+        return cacheManager;
     }
 
-    private Map<String, RedisCacheConfiguration> createCacheConfigurations(RedisCacheConfiguration defaultConfig) {
-        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    private Map<String, Duration> createCacheTtls() {
+        Map<String, Duration> cacheTtls = new HashMap<>();
 
         // Product caches
-        addProductCacheConfigurations(cacheConfigurations, defaultConfig);
-        
+        addProductCacheTtls(cacheTtls);
+
         // Category caches
-        addCategoryCacheConfigurations(cacheConfigurations, defaultConfig);
-        
+        cacheTtls.put(CacheConstants.CATEGORIES, Duration.ofSeconds(categoryCacheTtl));
+
         // User caches
-        addUserCacheConfigurations(cacheConfigurations, defaultConfig);
+        cacheTtls.put(CacheConstants.USERS, Duration.ofSeconds(userCacheTtl));
 
-        return cacheConfigurations;
+        return cacheTtls;
     }
 
-    private void addProductCacheConfigurations(Map<String, RedisCacheConfiguration> cacheConfigurations, 
-                                             RedisCacheConfiguration defaultConfig) {
+    private void addProductCacheTtls(Map<String, Duration> cacheTtls) {
         Duration productTtl = Duration.ofSeconds(productCacheTtl);
-        
-        cacheConfigurations.put(CacheConstants.PRODUCTS, defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put(CacheConstants.PRODUCT_BY_ID, defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put(CacheConstants.PRODUCTS_BY_CATEGORY, defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put(CacheConstants.PRODUCTS_BY_BRAND, defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put(CacheConstants.PRODUCTS_BY_NAME, defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put(CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put(CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put(CacheConstants.PRODUCT_COUNT, defaultConfig.entryTtl(productTtl));
-    }
-
-    private void addCategoryCacheConfigurations(Map<String, RedisCacheConfiguration> cacheConfigurations, 
-                                              RedisCacheConfiguration defaultConfig) {
-        Duration categoryTtl = Duration.ofSeconds(categoryCacheTtl);
-        cacheConfigurations.put(CacheConstants.CATEGORIES, defaultConfig.entryTtl(categoryTtl));
-    }
 
-    private void addUserCacheConfigurations(Map<String, RedisCacheConfiguration> cacheConfigurations, 
-                                          RedisCacheConfiguration defaultConfig) {
-        Duration userTtl = Duration.ofSeconds(userCacheTtl);
-        cacheConfigurations.put(CacheConstants.USERS, defaultConfig.entryTtl(userTtl));
+        cacheTtls.put(CacheConstants.PRODUCTS, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCTS_PAGE, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCT_BY_ID, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCT_SUMMARY, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCTS_BY_CATEGORY, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCTS_BY_BRAND, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCTS_BY_NAME, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, productTtl);
+        cacheTtls.put(CacheConstants.PRODUCT_COUNT, productTtl);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.newton.dream_shops.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id sequences of tables that used to be IDENTITY generated past
+ * their existing rows, so that the pooled sequence ids never collide with
+ * ids handed out before. Runs once the schema is up to date and before the
+ * first insert; it never moves a sequence backwards, so it is safe to run
+ * on every start.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Sequence name -> table name
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "cart_seq", "cart",
+            "cart_item_seq", "cart_item");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Declared so that Hibernate has created the sequences before this runs
+    @SuppressWarnings("unused")
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void alignSequences() {
+        if (!isPostgres()) {
+            return;
+        }
+
+        SEQUENCES.forEach((sequence, table) -> {
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST("
+                            + "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + ", "
+                            + "(SELECT last_value FROM " + sequence + ")))",
+                    Long.class);
+            log.debug("Sequence {} aligned to {}", sequence, value);
+        });
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), metaData -> metaData.getDatabaseProductName());
+            return "PostgreSQL".equals(product);
+        } catch (Exception e) {
+            log.warn("Could not determine database type, skipping sequence alignment: {}", e.getMessage());
+            return false;
+        }
+    }
+}
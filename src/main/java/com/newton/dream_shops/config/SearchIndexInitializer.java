@@ -0,0 +1,82 @@
+package com.newton.dream_shops.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the PostgreSQL search structures that Hibernate's schema update
+ * does not manage: a generated, weighted {@code tsvector} column on
+ * {@code product} with a GIN index for ranked full-text search, and
+ * {@code pg_trgm} indexes on product and category names for fuzzy and
+ * substring matching. Every statement is idempotent, so it runs on every
+ * start. On other databases, or when an extension cannot be created, the
+ * matching feature is reported as unavailable and search falls back to
+ * plain name matching.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndexInitializer {
+
+    public static final String TEXT_SEARCH_CONFIG = "simple";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Declared so that Hibernate has created the tables before this runs
+    @SuppressWarnings("unused")
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Getter
+    private volatile boolean fullTextEnabled;
+
+    @Getter
+    private volatile boolean trigramEnabled;
+
+    @PostConstruct
+    void createIndexes() {
+        if (!isPostgres()) {
+            return;
+        }
+
+        fullTextEnabled = execute("full-text search",
+                "ALTER TABLE product ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+                        + "setweight(to_tsvector('" + TEXT_SEARCH_CONFIG + "', coalesce(name, '')), 'A') || "
+                        + "setweight(to_tsvector('" + TEXT_SEARCH_CONFIG + "', coalesce(brand, '')), 'B') || "
+                        + "setweight(to_tsvector('" + TEXT_SEARCH_CONFIG + "', coalesce(description, '')), 'C')) STORED",
+                "CREATE INDEX IF NOT EXISTS idx_product_search_vector ON product USING GIN (search_vector)");
+
+        trigramEnabled = execute("trigram matching",
+                "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+                "CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product USING GIN (lower(name) gin_trgm_ops)",
+                "CREATE INDEX IF NOT EXISTS idx_category_name_trgm ON category USING GIN (lower(name) gin_trgm_ops)");
+    }
+
+    private boolean execute(String feature, String... statements) {
+        try {
+            for (String statement : statements) {
+                jdbcTemplate.execute(statement);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not set up {}, it will be unavailable: {}", feature, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), metaData -> metaData.getDatabaseProductName());
+            return "PostgreSQL".equals(product);
+        } catch (Exception e) {
+            log.warn("Could not determine database type, skipping search indexes: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -9,8 +9,12 @@ import com.newton.dream_shops.services.auth.oauth.CustomOidcUserService;
 import com.newton.dream_shops.services.auth.user.UserDetailsServiceImpl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -60,6 +64,27 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
+    /**
+     * Actuator endpoints other than health, such as metrics and the
+     * Prometheus scrape, are only answered on the management port, which is
+     * kept off the public network. Requests for them on any other port are
+     * refused, logged in or not.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(
+            HttpSecurity httpSecurity,
+            @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        httpSecurity.securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+                        .anyRequest().denyAll());
+        return httpSecurity.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity.cors(cors -> cors.configurationSource(configurationSource()))
@@ -75,7 +100,6 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/actuator/health",
                                 "/oauth2/**",
                                 "/oauth_test_page.html")
                         .permitAll()
@@ -8,7 +8,9 @@ public final class CacheConstants {
     
     // Product cache names
     public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_PAGE = "products_page";
     public static final String PRODUCT_BY_ID = "product_by_id";
+    public static final String PRODUCT_SUMMARY = "product_summary";
     public static final String PRODUCTS_BY_CATEGORY = "products_by_category";
     public static final String PRODUCTS_BY_BRAND = "products_by_brand";
     public static final String PRODUCTS_BY_NAME = "products_by_name";
@@ -1,5 +1,7 @@
 package com.newton.dream_shops.controller.cart;
 
+import com.newton.dream_shops.dto.cart.CartBatchRequest;
+import com.newton.dream_shops.dto.cart.CartBatchResultDto;
 import com.newton.dream_shops.exception.CustomException;
 import com.newton.dream_shops.response.ApiResponse;
 import com.newton.dream_shops.services.cart.cartItem.ICartItemService;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
@@ -77,6 +80,28 @@ public class CartItemController {
         }
     }
 
+    /**
+     * Add, update and remove many items in one request. Each operation
+     * reports its own outcome, so one bad line does not fail the others.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse> applyOperations(
+            @RequestBody CartBatchRequest batchRequest,
+            HttpServletRequest request) {
+        try {
+            CartBatchResultDto result = cartItemService.applyOperationsForCurrentUser(request,
+                    batchRequest.getOperations());
+            return ResponseEntity.ok(new ApiResponse("Cart operations applied", result));
+        } catch (CustomException e) {
+            if (e.getMessage().contains("authentication")) {
+                return ResponseEntity.status(UNAUTHORIZED).body(new ApiResponse(e.getMessage(), null));
+            }
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+
     @GetMapping("/item/{productId}")
     public ResponseEntity<ApiResponse> getCartItem(
             @PathVariable Long productId,
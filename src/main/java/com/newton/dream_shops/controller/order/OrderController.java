@@ -1,10 +1,14 @@
 package com.newton.dream_shops.controller.order;
 
 import com.newton.dream_shops.dto.order.OrderDto;
+import com.newton.dream_shops.dto.order.OrderPageDto;
+import com.newton.dream_shops.dto.order.OrderRequestDto;
+import com.newton.dream_shops.dto.order.OrderStatusSummaryDto;
 import com.newton.dream_shops.dto.order.OrderStatusUpdateRequest;
 import com.newton.dream_shops.enums.OrderStatus;
 import com.newton.dream_shops.exception.CustomException;
 import com.newton.dream_shops.response.ApiResponse;
+import com.newton.dream_shops.services.order.IOrderPlacementService;
 import com.newton.dream_shops.services.order.IOrderService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("${api.prefix}/orders")
 public class OrderController {
     private final IOrderService orderService;
+    private final IOrderPlacementService orderPlacementService;
 
     @PostMapping("/place-order")
     public ResponseEntity<ApiResponse> createOrder(HttpServletRequest request) {
@@ -36,6 +41,37 @@ public class OrderController {
         }
     }
 
+    @PostMapping("/requests")
+    public ResponseEntity<ApiResponse> submitOrder(
+            HttpServletRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            OrderRequestDto orderRequest = orderPlacementService.submitOrder(request, idempotencyKey);
+            return ResponseEntity.status(ACCEPTED)
+                    .body(new ApiResponse("Order request accepted", orderRequest));
+        } catch (CustomException e) {
+            return ResponseEntity.status(BAD_REQUEST)
+                    .body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse("An unexpected error occurred while submitting order", null));
+        }
+    }
+
+    @GetMapping("/requests/{requestId}")
+    public ResponseEntity<ApiResponse> getOrderRequest(HttpServletRequest request, @PathVariable Long requestId) {
+        try {
+            OrderRequestDto orderRequest = orderPlacementService.getOrderRequest(request, requestId);
+            return ResponseEntity.ok(new ApiResponse("Order request retrieved successfully", orderRequest));
+        } catch (CustomException e) {
+            return ResponseEntity.status(NOT_FOUND)
+                    .body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse("An unexpected error occurred while retrieving order request", null));
+        }
+    }
+
     @PostMapping("/place-order/user/{userId}")
     public ResponseEntity<ApiResponse> placeOrderForUser(@PathVariable Long userId) {
         try {
@@ -79,6 +115,38 @@ public class OrderController {
         }
     }
 
+    @GetMapping("/my-orders/page")
+    public ResponseEntity<ApiResponse> getUserOrdersPage(HttpServletRequest request,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            OrderPageDto page = orderService.getUserOrdersPage(request, after, limit);
+            return ResponseEntity.ok(new ApiResponse("Orders retrieved successfully", page));
+        } catch (CustomException e) {
+            return ResponseEntity.status(BAD_REQUEST)
+                    .body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse("An unexpected error occurred while retrieving orders", null));
+        }
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<ApiResponse> getUserOrdersPageByUserId(@PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            OrderPageDto page = orderService.getUserOrdersPageByUserId(userId, after, limit);
+            return ResponseEntity.ok(new ApiResponse("User orders retrieved successfully", page));
+        } catch (CustomException e) {
+            return ResponseEntity.status(BAD_REQUEST)
+                    .body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse("An unexpected error occurred while retrieving user orders", null));
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<ApiResponse> getUserOrdersByUserId(@PathVariable Long userId) {
         try {
@@ -107,6 +175,33 @@ public class OrderController {
         }
     }
 
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<ApiResponse> getOrdersPageByStatus(@PathVariable OrderStatus status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            OrderPageDto page = orderService.getOrdersPageByStatus(status, after, limit);
+            return ResponseEntity.ok(new ApiResponse("Orders retrieved successfully", page));
+        } catch (CustomException e) {
+            return ResponseEntity.status(BAD_REQUEST)
+                    .body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse("An unexpected error occurred while retrieving orders", null));
+        }
+    }
+
+    @GetMapping("/status-summary")
+    public ResponseEntity<ApiResponse> getOrderStatusSummary() {
+        try {
+            OrderStatusSummaryDto summary = orderService.getOrderStatusSummary();
+            return ResponseEntity.ok(new ApiResponse("Order status summary retrieved successfully", summary));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse("An unexpected error occurred while retrieving order status summary", null));
+        }
+    }
+
     @PutMapping("/{orderId}/status")
     public ResponseEntity<ApiResponse> updateOrderStatus(
             @PathVariable Long orderId,
@@ -2,6 +2,8 @@ package com.newton.dream_shops.controller.product;
 
 import com.newton.dream_shops.dto.product.AddProductsRequest;
 import com.newton.dream_shops.dto.product.ProductDto;
+import com.newton.dream_shops.dto.product.ProductPageDto;
+import com.newton.dream_shops.dto.product.ProductSearchPageDto;
 import com.newton.dream_shops.dto.product.ProductsUpdateRequest;
 import com.newton.dream_shops.exception.CustomException;
 import com.newton.dream_shops.response.ApiResponse;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
@@ -31,6 +34,33 @@ public class ProductController {
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse> getProductsPage(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            ProductPageDto page = productService.getProductsPage(after, limit);
+            return ResponseEntity.ok(new ApiResponse("Successfully retrieved products", page));
+        } catch (CustomException e) {
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse> searchProducts(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            ProductSearchPageDto results = productService.searchProducts(query, page, size);
+            return ResponseEntity.ok(new ApiResponse("Successfully searched products", results));
+        } catch (CustomException e) {
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiResponse(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+
     @GetMapping("/product/{id}/product")
     public ResponseEntity<ApiResponse> getProductById(@PathVariable Long id) {
         try {
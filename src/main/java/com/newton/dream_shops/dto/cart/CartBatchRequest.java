@@ -0,0 +1,10 @@
+package com.newton.dream_shops.dto.cart;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CartBatchRequest {
+    private List<CartItemOperation> operations;
+}
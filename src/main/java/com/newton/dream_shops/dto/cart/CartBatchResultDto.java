@@ -0,0 +1,16 @@
+package com.newton.dream_shops.dto.cart;
+
+import com.newton.dream_shops.models.cart.Cart;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartBatchResultDto {
+    private Cart cart;
+    private List<CartOperationResultDto> results;
+}
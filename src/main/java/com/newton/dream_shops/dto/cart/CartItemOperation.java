@@ -0,0 +1,15 @@
+package com.newton.dream_shops.dto.cart;
+
+import com.newton.dream_shops.enums.CartOperationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartItemOperation {
+    private CartOperationType type;
+    private Long productId;
+    private Integer quantity;
+}
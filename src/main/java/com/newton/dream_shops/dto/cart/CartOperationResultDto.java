@@ -0,0 +1,23 @@
+package com.newton.dream_shops.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartOperationResultDto {
+    private int index;
+    private Long productId;
+    private boolean success;
+    private String error;
+
+    public static CartOperationResultDto succeeded(int index, Long productId) {
+        return new CartOperationResultDto(index, productId, true, null);
+    }
+
+    public static CartOperationResultDto failed(int index, Long productId, String error) {
+        return new CartOperationResultDto(index, productId, false, error);
+    }
+}
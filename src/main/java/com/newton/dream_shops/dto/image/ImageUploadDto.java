@@ -42,18 +42,6 @@ public class ImageUploadDto {
                 .build();
     }
 
-    /**
-     * Convert Image entity to ImageResponseDto for client response
-     */
-    public static ImageResponseDto toImageDto(Image image) {
-        return ImageResponseDto.builder()
-                .imageId(image.getId())
-                .imageName(image.getFileName())
-                .fileType(image.getFileType())
-                .imageUrl(image.getImageUrl())
-                .build();
-    }
-
     /**
      * Converts this DTO to an Image Entity
      * The imageUrl and storagePath will be set after Firebase upload
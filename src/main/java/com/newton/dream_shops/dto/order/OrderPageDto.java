@@ -0,0 +1,16 @@
+package com.newton.dream_shops.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageDto {
+    private List<OrderDto> orders;
+    private String nextCursor;
+    private boolean hasMore;
+}
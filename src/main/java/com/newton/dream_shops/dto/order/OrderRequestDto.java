@@ -0,0 +1,15 @@
+package com.newton.dream_shops.dto.order;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class OrderRequestDto {
+    private Long id;
+    private String idempotencyKey;
+    private String status;
+    private Long orderId;
+    private String failureReason;
+    private LocalDateTime createdAt;
+}
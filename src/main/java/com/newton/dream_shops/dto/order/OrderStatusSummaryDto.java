@@ -0,0 +1,16 @@
+package com.newton.dream_shops.dto.order;
+
+import com.newton.dream_shops.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusSummaryDto {
+    private Map<OrderStatus, Long> counts;
+    private long total;
+}
@@ -0,0 +1,16 @@
+package com.newton.dream_shops.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPageDto {
+    private List<ProductDto> products;
+    private String nextCursor;
+    private boolean hasMore;
+}
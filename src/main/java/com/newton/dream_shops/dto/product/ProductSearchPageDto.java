@@ -0,0 +1,17 @@
+package com.newton.dream_shops.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchPageDto {
+    private List<ProductDto> products;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
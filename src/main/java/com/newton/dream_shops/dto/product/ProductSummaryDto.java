@@ -0,0 +1,20 @@
+package com.newton.dream_shops.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * The few product fields write paths need, without the category and images
+ * of a full {@link ProductDto}
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSummaryDto {
+    private Long id;
+    private BigDecimal price;
+    private int inventory;
+}
@@ -0,0 +1,7 @@
+package com.newton.dream_shops.enums;
+
+public enum CartOperationType {
+    ADD,
+    UPDATE,
+    REMOVE
+}
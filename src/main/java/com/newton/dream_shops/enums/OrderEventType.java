@@ -0,0 +1,6 @@
+package com.newton.dream_shops.enums;
+
+public enum OrderEventType {
+    ORDER_PLACED,
+    ORDER_STATUS_CHANGED
+}
@@ -0,0 +1,8 @@
+package com.newton.dream_shops.enums;
+
+public enum OrderRequestStatus {
+    ACCEPTED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
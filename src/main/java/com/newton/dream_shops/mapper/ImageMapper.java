@@ -0,0 +1,24 @@
+package com.newton.dream_shops.mapper;
+
+import com.newton.dream_shops.dto.image.ImageResponseDto;
+import com.newton.dream_shops.models.image.Image;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class ImageMapper {
+
+    public ImageResponseDto toDto(Image image) {
+        return ImageResponseDto.builder()
+                .imageId(image.getId())
+                .imageName(image.getFileName())
+                .fileType(image.getFileType())
+                .imageUrl(image.getImageUrl())
+                .build();
+    }
+
+    public List<ImageResponseDto> toDtos(List<Image> images) {
+        return images.stream().map(this::toDto).toList();
+    }
+}
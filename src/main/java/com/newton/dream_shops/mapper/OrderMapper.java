@@ -0,0 +1,33 @@
+package com.newton.dream_shops.mapper;
+
+import com.newton.dream_shops.dto.order.OrderDto;
+import com.newton.dream_shops.dto.order.OrderItemDto;
+import com.newton.dream_shops.models.order.Order;
+import com.newton.dream_shops.models.order.OrderItem;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderMapper {
+
+    public OrderDto toDto(Order order) {
+        OrderDto dto = new OrderDto();
+        dto.setId(order.getId());
+        dto.setUserId(order.getUser() != null ? order.getUser().getId() : null);
+        dto.setOrderDate(order.getOrderDate());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setStatus(order.getOrderStatus() != null ? order.getOrderStatus().name() : null);
+        dto.setOrderItems(order.getOrderItems().stream().map(this::toItemDto).toList());
+        return dto;
+    }
+
+    public OrderItemDto toItemDto(OrderItem orderItem) {
+        OrderItemDto dto = new OrderItemDto();
+        if (orderItem.getProduct() != null) {
+            dto.setProductId(orderItem.getProduct().getId());
+            dto.setProductName(orderItem.getProduct().getName());
+        }
+        dto.setQuantity(orderItem.getQuantity());
+        dto.setPrice(orderItem.getPrice());
+        return dto;
+    }
+}
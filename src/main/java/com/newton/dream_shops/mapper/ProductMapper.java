@@ -0,0 +1,47 @@
+package com.newton.dream_shops.mapper;
+
+import com.newton.dream_shops.dto.product.ProductDto;
+import com.newton.dream_shops.models.category.Category;
+import com.newton.dream_shops.models.image.Image;
+import com.newton.dream_shops.models.product.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ProductMapper {
+
+    private final ImageMapper imageMapper;
+
+    /**
+     * @param images The product's images, loaded by the caller so that
+     *               mapping never touches the lazy collection
+     */
+    public ProductDto toDto(Product product, List<Image> images) {
+        ProductDto dto = new ProductDto();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setBrand(product.getBrand());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setInventory(product.getInventory());
+        dto.setCategory(copyOf(product.getCategory()));
+        dto.setImages(imageMapper.toDtos(images));
+        return dto;
+    }
+
+    /**
+     * Detached copy holding only the id and name, so DTOs never carry a
+     * Hibernate proxy or the category's product list into the cache
+     */
+    private Category copyOf(Category category) {
+        if (category == null) {
+            return null;
+        }
+        Category copy = new Category(category.getName());
+        copy.setId(category.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,18 @@
+package com.newton.dream_shops.mapper;
+
+import com.newton.dream_shops.dto.auth.UserInfo;
+import com.newton.dream_shops.models.auth.User;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+
+    public UserInfo toUserInfo(User user) {
+        return new UserInfo(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getUsername(),
+                user.getEmail());
+    }
+}
@@ -70,6 +70,12 @@ public class User implements UserDetails {
 
     private LocalDateTime updatedAt;
 
+    /**
+     * Bumped to revoke every access token issued before the change
+     */
+    @Column(name = "token_version", nullable = false, columnDefinition = "bigint not null default 0")
+    private long tokenVersion = 0;
+
     private boolean isAccountNonExpired = true;
 
     private boolean isAccountNonLocked = true;
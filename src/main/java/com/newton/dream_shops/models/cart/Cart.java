@@ -20,7 +20,8 @@ import com.newton.dream_shops.models.auth.User;
 @Entity
 public class Cart {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+    @SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
     private Long id;
     private BigDecimal totalAmount = BigDecimal.ZERO;
 
@@ -33,25 +34,55 @@ public class Cart {
     private User user;
 
     public void addItem(CartItem item) {
-        this.cartItems.add(item);
+        BigDecimal total = currentTotal();
+        this.totalAmount = this.cartItems.add(item) ? total.add(lineTotal(item)) : total;
         item.setCart(this);
-        updateTotalAmount();
+        assert totalMatchesItems() : "Cart total out of step with its items";
     }
 
     public void removeItem(CartItem item) {
-        this.cartItems.remove(item);
+        BigDecimal total = currentTotal();
+        this.totalAmount = this.cartItems.remove(item) ? total.subtract(lineTotal(item)) : total;
         item.setCart(null);
-        updateTotalAmount();
+        assert totalMatchesItems() : "Cart total out of step with its items";
     }
 
-    private void updateTotalAmount() {
-        this.totalAmount = cartItems.stream().map(item -> {
-            BigDecimal unitPrice = item.getUnitPrice();
-            if (unitPrice == null) {
-                return BigDecimal.ZERO;
-            }
-            return unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
-        }).reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Change the quantity and unit price of a line, adjusting the total by
+     * the difference in the line's price
+     */
+    public void updateItem(CartItem item, int quantity, BigDecimal unitPrice) {
+        BigDecimal total = currentTotal();
+        BigDecimal before = lineTotal(item);
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        item.setTotalPrice();
+        this.totalAmount = this.cartItems.contains(item) ? total.add(lineTotal(item).subtract(before)) : total;
+        assert totalMatchesItems() : "Cart total out of step with its items";
+    }
+
+    // The total is kept as a running sum; rows saved without one are summed once
+    private BigDecimal currentTotal() {
+        return this.totalAmount != null ? this.totalAmount : sumItems();
+    }
+
+    private BigDecimal sumItems() {
+        return cartItems.stream().map(Cart::lineTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Full recompute of the total, only run when assertions are enabled
+     */
+    private boolean totalMatchesItems() {
+        return this.totalAmount.compareTo(sumItems()) == 0;
+    }
+
+    private static BigDecimal lineTotal(CartItem item) {
+        BigDecimal unitPrice = item.getUnitPrice();
+        if (unitPrice == null) {
+            return BigDecimal.ZERO;
+        }
+        return unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
     }
 
 }
@@ -17,10 +17,15 @@ import java.util.Set;
 @Setter
 @NoArgsConstructor
 @Entity(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_date", columnList = "user_id, order_date DESC, id DESC"),
+        @Index(name = "idx_orders_status_date", columnList = "order_status, order_date DESC, id DESC")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     private LocalDateTime orderDate;
     private BigDecimal totalPrice;
@@ -0,0 +1,73 @@
+package com.newton.dream_shops.models.order;
+
+import com.newton.dream_shops.enums.OrderRequestStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client's request to place an order, recorded before the order itself is
+ * created. The idempotency key is unique per user, so a retried submit finds
+ * the original request instead of placing a second order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "order_requests",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "idempotency_key" }),
+        indexes = @Index(name = "idx_order_requests_status_created", columnList = "status, created_at"))
+public class OrderRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_requests_seq")
+    @SequenceGenerator(name = "order_requests_seq", sequenceName = "order_requests_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderRequestStatus status = OrderRequestStatus.ACCEPTED;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    /**
+     * When a worker was handed the request; a claim this old is assumed lost
+     */
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public OrderRequest(Long userId, String idempotencyKey) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
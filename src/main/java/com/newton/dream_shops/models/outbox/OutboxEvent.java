@@ -0,0 +1,59 @@
+package com.newton.dream_shops.models.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event written in the same transaction as the change it describes, and
+ * relayed to consumers afterwards. Unpublished events are relayed in id
+ * order, which keeps the events of any one aggregate in order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_published_id", columnList = "published_at, id"))
+public class OutboxEvent {
+
+    // Ids are drawn one at a time: a pooled block per node would let a later
+    // event of an order get a lower id than an earlier one written elsewhere
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
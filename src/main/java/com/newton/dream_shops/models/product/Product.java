@@ -25,6 +25,10 @@ public class Product {
     @Column(length = 1000)
     private String description;
     private BigDecimal price;
+
+    // Changed only through IInventoryService, so that saving an edited
+    // product cannot overwrite stock taken by orders in the meantime
+    @Column(updatable = false)
     private int inventory;
 
     @ManyToOne
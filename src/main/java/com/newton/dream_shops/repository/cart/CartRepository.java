@@ -2,7 +2,8 @@ package com.newton.dream_shops.repository.cart;
 
 import com.newton.dream_shops.models.cart.Cart;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -18,4 +19,7 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT COUNT(c) > 0 FROM Cart c WHERE c.user.id = :userId")
     boolean existsByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems ci LEFT JOIN FETCH ci.product WHERE c.id IN :ids")
+    List<Cart> findCartsByIdIn(@Param("ids") Collection<Long> ids);
+
 }
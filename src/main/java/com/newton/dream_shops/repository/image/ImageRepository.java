@@ -2,12 +2,18 @@ package com.newton.dream_shops.repository.image;
 
 import com.newton.dream_shops.models.image.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
     List<Image> findByProductId(Long id);
 
+    @Query("SELECT i FROM Image i JOIN FETCH i.product p WHERE p.id IN :productIds")
+    List<Image> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
 }
@@ -0,0 +1,13 @@
+package com.newton.dream_shops.repository.order;
+
+import java.math.BigDecimal;
+
+/**
+ * Order line joined with its product's name, read without loading either entity
+ */
+public record OrderItemView(Long orderId,
+                            Long productId,
+                            String productName,
+                            int quantity,
+                            BigDecimal price) {
+}
@@ -2,9 +2,14 @@ package com.newton.dream_shops.repository.order;
 
 import com.newton.dream_shops.enums.OrderStatus;
 import com.newton.dream_shops.models.order.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +19,42 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByOrderStatus(OrderStatus orderStatus);
 
+    // Keyset pages, newest first, seeking past (orderDate, id) of the previous page's last row
+
+    @Query("SELECT new com.newton.dream_shops.repository.order.OrderSummaryView(o.id, o.user.id, o.orderDate, o.totalPrice, o.orderStatus) "
+            + "FROM orders o WHERE o.user.id = :userId ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryView> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.newton.dream_shops.repository.order.OrderSummaryView(o.id, o.user.id, o.orderDate, o.totalPrice, o.orderStatus) "
+            + "FROM orders o WHERE o.user.id = :userId "
+            + "AND (o.orderDate < :afterDate OR (o.orderDate = :afterDate AND o.id < :afterId)) "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryView> findSummariesByUserIdAfter(@Param("userId") Long userId,
+                                                      @Param("afterDate") LocalDateTime afterDate,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    @Query("SELECT new com.newton.dream_shops.repository.order.OrderSummaryView(o.id, o.user.id, o.orderDate, o.totalPrice, o.orderStatus) "
+            + "FROM orders o WHERE o.orderStatus = :status ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryView> findSummariesByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+    @Query("SELECT new com.newton.dream_shops.repository.order.OrderSummaryView(o.id, o.user.id, o.orderDate, o.totalPrice, o.orderStatus) "
+            + "FROM orders o WHERE o.orderStatus = :status "
+            + "AND (o.orderDate < :afterDate OR (o.orderDate = :afterDate AND o.id < :afterId)) "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryView> findSummariesByStatusAfter(@Param("status") OrderStatus status,
+                                                      @Param("afterDate") LocalDateTime afterDate,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    /**
+     * Lines of every order on a page in one query
+     */
+    @Query("SELECT new com.newton.dream_shops.repository.order.OrderItemView(i.order.id, p.id, p.name, i.quantity, i.price) "
+            + "FROM order_items i JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemView> findItemViewsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT new com.newton.dream_shops.repository.order.OrderStatusCount(o.orderStatus, COUNT(o)) "
+            + "FROM orders o GROUP BY o.orderStatus")
+    List<OrderStatusCount> countByStatus();
 }
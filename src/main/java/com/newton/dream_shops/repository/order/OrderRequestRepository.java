@@ -0,0 +1,57 @@
+package com.newton.dream_shops.repository.order;
+
+import com.newton.dream_shops.enums.OrderRequestStatus;
+import com.newton.dream_shops.models.order.OrderRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, Long> {
+
+    Optional<OrderRequest> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    Optional<OrderRequest> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Lock the request for processing; a second worker blocks here until the
+     * first one commits and then sees the final status
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM OrderRequest r WHERE r.id = :id")
+    Optional<OrderRequest> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Hand the request to a worker if it is unclaimed or its claim is older
+     * than {@code staleBefore}
+     *
+     * @return 1 if this caller now holds the claim
+     */
+    @Modifying
+    @Query("UPDATE OrderRequest r SET r.status = :processing, r.claimedAt = :now, r.updatedAt = :now "
+            + "WHERE r.id = :id AND (r.status = :accepted OR (r.status = :processing AND r.claimedAt < :staleBefore))")
+    int claim(@Param("id") Long id,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("accepted") OrderRequestStatus accepted,
+              @Param("processing") OrderRequestStatus processing);
+
+    /**
+     * Requests never handed to a worker, or whose worker has not finished them in time
+     */
+    @Query("SELECT r.id FROM OrderRequest r WHERE (r.status = :accepted AND r.createdAt < :before) "
+            + "OR (r.status = :processing AND r.claimedAt < :before) ORDER BY r.createdAt")
+    List<Long> findStaleIds(@Param("before") LocalDateTime before,
+                            @Param("accepted") OrderRequestStatus accepted,
+                            @Param("processing") OrderRequestStatus processing,
+                            Pageable pageable);
+}
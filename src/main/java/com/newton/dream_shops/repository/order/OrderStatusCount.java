@@ -0,0 +1,6 @@
+package com.newton.dream_shops.repository.order;
+
+import com.newton.dream_shops.enums.OrderStatus;
+
+public record OrderStatusCount(OrderStatus orderStatus, long count) {
+}
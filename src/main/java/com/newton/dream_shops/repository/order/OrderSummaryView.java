@@ -0,0 +1,16 @@
+package com.newton.dream_shops.repository.order;
+
+import com.newton.dream_shops.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order columns needed for listings, read without loading the entity
+ */
+public record OrderSummaryView(Long id,
+                               Long userId,
+                               LocalDateTime orderDate,
+                               BigDecimal totalPrice,
+                               OrderStatus orderStatus) {
+}
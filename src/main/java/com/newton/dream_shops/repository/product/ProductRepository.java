@@ -1,16 +1,20 @@
 package com.newton.dream_shops.repository.product;
 
+import com.newton.dream_shops.dto.product.ProductSummaryDto;
 import com.newton.dream_shops.models.category.Category;
 import com.newton.dream_shops.models.product.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findByCategoryName(String category);
 
     List<Product> findByBrand(String brand);
@@ -25,6 +29,22 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByCategory(Category category);
 
+    List<Product> findByOrderByIdAsc(Pageable pageable);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT p.inventory FROM Product p WHERE p.id = :id")
+    Optional<Integer> findInventoryById(@Param("id") Long id);
+
+    @Query("SELECT new com.newton.dream_shops.dto.product.ProductSummaryDto(p.id, p.price, p.inventory) FROM Product p WHERE p.id = :id")
+    Optional<ProductSummaryDto> findSummaryById(@Param("id") Long id);
+
     @Query("SELECT c FROM Product c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Product> searchProductByName(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Unranked fallback for databases without the full-text index
+     */
+    @Query("SELECT c FROM Product c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY c.name, c.id")
+    Slice<Product> searchProductByName(@Param("searchTerm") String searchTerm, Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package com.newton.dream_shops.repository.product;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Atomically take stock for every product in one JDBC batch. A product is
+     * only decremented if it has enough inventory left; nothing is read into
+     * Java first, so concurrent orders cannot oversell.
+     *
+     * @param quantities Quantity to take per product id
+     * @return Ids of the products that did not have enough inventory; the
+     * caller must roll back if this is not empty
+     */
+    List<Long> decrementInventory(Map<Long, Integer> quantities);
+
+    /**
+     * Return stock for every product in one JDBC batch
+     *
+     * @param quantities Quantity to return per product id
+     */
+    void incrementInventory(Map<Long, Integer> quantities);
+
+    /**
+     * Rank products against a full-text query, best match first. Needs the
+     * search column and indexes created by {@code SearchIndexInitializer}.
+     *
+     * @param tsQuery   A prefix-matching {@code to_tsquery} expression
+     * @param fuzzyTerm Lower-cased term to also match by trigram similarity on
+     *                  the product name, or null to match full text only
+     * @return Ids of the matching products on the requested page, in rank order
+     */
+    List<Long> searchProductIds(String tsQuery, String fuzzyTerm, int limit, long offset);
+}
@@ -0,0 +1,68 @@
+package com.newton.dream_shops.repository.product;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE product SET inventory = inventory - ? WHERE id = ? AND inventory >= ?";
+    private static final String INCREMENT_SQL =
+            "UPDATE product SET inventory = inventory + ? WHERE id = ?";
+
+    // Whole-word and prefix matches weigh more than a merely similar name
+    private static final String SEARCH_SQL =
+            "SELECT p.id FROM product p, to_tsquery('simple', ?) query "
+                    + "WHERE p.search_vector @@ query "
+                    + "ORDER BY ts_rank_cd(p.search_vector, query) DESC, p.id "
+                    + "LIMIT ? OFFSET ?";
+    private static final String FUZZY_SEARCH_SQL =
+            "SELECT p.id FROM product p, to_tsquery('simple', ?) query "
+                    + "WHERE p.search_vector @@ query OR lower(p.name) % ? "
+                    + "ORDER BY 2 * ts_rank_cd(p.search_vector, query) + similarity(lower(p.name), ?) DESC, p.id "
+                    + "LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> decrementInventory(Map<Long, Integer> quantities) {
+        // Lock rows in id order so two orders for the same products cannot deadlock
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantities).keySet());
+        List<Object[]> args = productIds.stream()
+                .map(id -> new Object[] { quantities.get(id), id, quantities.get(id) })
+                .toList();
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+
+        List<Long> insufficient = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                insufficient.add(productIds.get(i));
+            }
+        }
+        return insufficient;
+    }
+
+    @Override
+    public void incrementInventory(Map<Long, Integer> quantities) {
+        List<Object[]> args = new TreeMap<>(quantities).entrySet().stream()
+                .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                .toList();
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, args);
+    }
+
+    @Override
+    public List<Long> searchProductIds(String tsQuery, String fuzzyTerm, int limit, long offset) {
+        if (fuzzyTerm == null) {
+            return jdbcTemplate.queryForList(SEARCH_SQL, Long.class, tsQuery, limit, offset);
+        }
+        return jdbcTemplate.queryForList(FUZZY_SEARCH_SQL, Long.class,
+                tsQuery, fuzzyTerm, fuzzyTerm, limit, offset);
+    }
+}
@@ -1,14 +1,18 @@
 package com.newton.dream_shops.security.jwt;
 
+import com.newton.dream_shops.security.user.UserPrincipal;
 import com.newton.dream_shops.services.auth.user.UserDetailsServiceImpl;
 import com.newton.dream_shops.util.jwt.JwtUtil;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,6 +30,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    /**
+     * When set, the principal is built from the token's claims and only the
+     * token version is checked, instead of loading the user on every request
+     */
+    @Value("${app.security.jwt.stateless:false}")
+    private boolean stateless;
 
 
     @Override
@@ -36,10 +48,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtUtil.validateUserToken(jwt, userDetails)) {
+            // Parse and verify the token once; everything below reuses the claims
+            Claims claims = StringUtils.hasText(jwt) ? jwtUtil.parseClaims(jwt) : null;
+            if (claims != null) {
+                request.setAttribute(JwtUtil.CLAIMS_ATTRIBUTE, claims);
+                UserDetails userDetails = resolveUser(claims);
+                if (userDetails != null && jwtUtil.validateUserClaims(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authenticationToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -52,6 +66,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    @Nullable
+    private UserDetails resolveUser(Claims claims) {
+        long tokenVersion = JwtUtil.getTokenVersion(claims);
+
+        if (stateless) {
+            Long userId = JwtUtil.getUserId(claims);
+            // Only access tokens carry a user id
+            if (userId == null || !tokenVersionService.isCurrent(userId, tokenVersion)) {
+                return null;
+            }
+            return JwtUserPrincipal.fromClaims(claims);
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (userDetails instanceof UserPrincipal user && tokenVersion < user.getTokenVersion()) {
+            return null;
+        }
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,51 @@
+package com.newton.dream_shops.security.jwt;
+
+import com.newton.dream_shops.util.jwt.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from a verified access token alone, used when requests are
+ * authenticated without loading the user from the database
+ */
+@Getter
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final long tokenVersion;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(Long id, String username, String email, long tokenVersion,
+                            Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.tokenVersion = tokenVersion;
+        this.authorities = authorities;
+    }
+
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        List<SimpleGrantedAuthority> authorities = claims.get(JwtUtil.AUTHORITIES_CLAIM) instanceof List<?> roles
+                ? roles.stream().map(String::valueOf).map(SimpleGrantedAuthority::new).toList()
+                : List.of();
+        return new JwtUserPrincipal(
+                JwtUtil.getUserId(claims),
+                claims.getSubject(),
+                claims.get("email", String.class),
+                JwtUtil.getTokenVersion(claims),
+                authorities);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
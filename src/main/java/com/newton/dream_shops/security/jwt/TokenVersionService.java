@@ -0,0 +1,125 @@
+package com.newton.dream_shops.security.jwt;
+
+import com.newton.dream_shops.repository.auth.UserRepository;
+import com.newton.dream_shops.services.auth.user.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Tracks each user's current access token version. Tokens carry the version
+ * they were issued with and are rejected once the user's version moves past
+ * it. Versions are read from Redis and only fall back to the database on a
+ * miss, so checking a token does not normally touch Postgres.
+ * <p>
+ * The cached version only ever moves forward, so a request that read the
+ * old version from the database before a revocation committed cannot put
+ * it back in the cache afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionService {
+
+    private static final String VERSION_KEY_PREFIX = "dream-shops:token-version:";
+
+    private static final RedisScript<Long> SET_IF_GREATER_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if current and tonumber(current) >= tonumber(ARGV[1]) then return 0 end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    /**
+     * @return The user's current token version, or empty if the user no longer exists
+     */
+    public OptionalLong getCurrentVersion(Long userId) {
+        String key = VERSION_KEY_PREFIX + userId;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return OptionalLong.of(Long.parseLong(cached));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read token version for user {}: {}", userId, e.getMessage());
+        }
+
+        return userRepository.findTokenVersionById(userId)
+                .map(version -> {
+                    cacheVersion(key, version);
+                    return OptionalLong.of(version);
+                })
+                .orElse(OptionalLong.empty());
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        OptionalLong current = getCurrentVersion(userId);
+        return current.isPresent() && tokenVersion >= current.getAsLong();
+    }
+
+    /**
+     * Revoke every access token issued to the user so far. The new version is
+     * cached once the surrounding transaction commits.
+     */
+    public void revokeAll(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        eventPublisher.publishEvent(UserChangedEvent.of(userId));
+
+        Long newVersion = userRepository.findTokenVersionById(userId).orElse(null);
+        if (newVersion == null) {
+            return;
+        }
+        String key = VERSION_KEY_PREFIX + userId;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishVersion(key, newVersion);
+                }
+            });
+        } else {
+            publishVersion(key, newVersion);
+        }
+    }
+
+    private boolean cacheVersion(String key, long version) {
+        try {
+            // Entries only need to outlive the tokens they are checked against
+            redisTemplate.execute(SET_IF_GREATER_SCRIPT, List.of(key),
+                    Long.toString(version), Long.toString(jwtExpirationMs));
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to cache token version {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private void publishVersion(String key, long version) {
+        if (cacheVersion(key, version)) {
+            return;
+        }
+        // At least stop the old version from being served
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.error("Failed to evict token version {}: {}", key, e.getMessage());
+        }
+    }
+}
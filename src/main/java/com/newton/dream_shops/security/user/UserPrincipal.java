@@ -0,0 +1,53 @@
+package com.newton.dream_shops.security.user;
+
+import com.newton.dream_shops.models.auth.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Detached snapshot of the fields of a {@link User} needed for
+ * authentication. Unlike the entity it holds no relations and no persistence
+ * context, so it is safe to keep in a cache.
+ */
+@Getter
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String password;
+    private final long tokenVersion;
+    private final boolean emailVerified;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final boolean enabled;
+    private final List<GrantedAuthority> authorities;
+
+    private UserPrincipal(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.tokenVersion = user.getTokenVersion();
+        this.emailVerified = Boolean.TRUE.equals(user.getEmailVerified());
+        this.accountNonExpired = user.isAccountNonExpired();
+        this.accountNonLocked = user.isAccountNonLocked();
+        this.credentialsNonExpired = user.isCredentialsNonExpired();
+        this.enabled = user.isEnabled();
+        this.authorities = List.copyOf(user.getAuthorities());
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -1,7 +1,6 @@
 package com.newton.dream_shops.services.auth.customAuth;
 
 import java.util.Optional;
-import org.modelmapper.ModelMapper;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,10 +17,12 @@ import com.newton.dream_shops.dto.auth.UserInfo;
 import com.newton.dream_shops.dto.auth.VerifyOtpRequest;
 import com.newton.dream_shops.exception.AlreadyExistsException;
 import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.mapper.UserMapper;
 import com.newton.dream_shops.models.auth.RefreshToken;
 import com.newton.dream_shops.models.auth.User;
 import com.newton.dream_shops.repository.auth.RefreshTokenRepository;
 import com.newton.dream_shops.repository.auth.UserRepository;
+import com.newton.dream_shops.security.user.UserPrincipal;
 import com.newton.dream_shops.services.auth.otp.IOtpService;
 import com.newton.dream_shops.services.email.IEmailService;
 import com.newton.dream_shops.util.jwt.JwtHelperService;
@@ -40,7 +41,7 @@ public class AuthService implements IAuthService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final JwtHelperService jwtHelperService;
     private final IOtpService otpService;
     private final IEmailService emailService;
@@ -80,7 +81,9 @@ public class AuthService implements IAuthService {
         validateLoginRequest(loginRequest);
         return Optional.of(loginRequest)
                 .map(this::authenticateUser)
-                .map(auth -> (User) auth.getPrincipal())
+                .map(auth -> (UserPrincipal) auth.getPrincipal())
+                .map(principal -> userRepository.findById(principal.getId())
+                        .orElseThrow(() -> new CustomException("User not found")))
                 .map(user -> {
                     if (!user.isEnabled()) {
                         throw new CustomException("Account is disabled. Please verify your email first");
@@ -218,9 +221,7 @@ public class AuthService implements IAuthService {
 
     @Override
     public UserInfo mapToUserInfo(User user) {
-        UserInfo userInfo = modelMapper.map(user, UserInfo.class);
-
-        return userInfo;
+        return userMapper.toUserInfo(user);
     }
 
     @Override
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +16,7 @@ import com.newton.dream_shops.models.auth.Otp;
 import com.newton.dream_shops.models.auth.User;
 import com.newton.dream_shops.repository.auth.OtpRepository;
 import com.newton.dream_shops.repository.auth.UserRepository;
+import com.newton.dream_shops.services.auth.user.UserChangedEvent;
 import com.newton.dream_shops.services.email.IEmailService;
 import com.newton.dream_shops.util.otp.OtpGenerator;
 
@@ -28,6 +30,7 @@ public class OtpService implements IOtpService {
     private final UserRepository userRepository;
     private final IEmailService emailService;
     private final OtpGenerator otpGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.otp.expiry-minutes:10}")
     private int otpExpiryminutes;
@@ -107,6 +110,7 @@ public class OtpService implements IOtpService {
         user.setEmailVerified(true);
         user.setEnabled(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
 
         try {
             emailService.sendAccountActivationSuccess(user.getEmail(), user.getFirstName());
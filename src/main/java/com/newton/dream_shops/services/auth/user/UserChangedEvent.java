@@ -0,0 +1,22 @@
+package com.newton.dream_shops.services.auth.user;
+
+import com.newton.dream_shops.models.auth.User;
+
+import java.util.Set;
+
+/**
+ * Published whenever a user's authentication-relevant state changes
+ *
+ * @param userId The changed user
+ * @param names  Usernames and emails the user could be looked up by; empty if unknown
+ */
+public record UserChangedEvent(Long userId, Set<String> names) {
+
+    public static UserChangedEvent of(User user) {
+        return new UserChangedEvent(user.getId(), Set.of(user.getUsername(), user.getEmail()));
+    }
+
+    public static UserChangedEvent of(Long userId) {
+        return new UserChangedEvent(userId, Set.of());
+    }
+}
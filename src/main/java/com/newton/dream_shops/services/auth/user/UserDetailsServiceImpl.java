@@ -1,31 +1,41 @@
 package com.newton.dream_shops.services.auth.user;
 
+import com.newton.dream_shops.constants.CacheConstants;
 import com.newton.dream_shops.models.auth.User;
 import com.newton.dream_shops.repository.auth.UserRepository;
-import jakarta.transaction.Transactional;
+import com.newton.dream_shops.security.user.UserPrincipal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Loads principals as detached {@link UserPrincipal} snapshots, cached in a
+ * short-lived local cache and evicted by {@link UserPrincipalCacheEvictor}
+ */
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
+
+    static final String NAME_KEY_PREFIX = "name:";
+    static final String ID_KEY_PREFIX = "id:";
+
     private final UserRepository userRepository;
 
     @Override
-    @Transactional
+    @Cacheable(value = CacheConstants.USERS, key = "'" + NAME_KEY_PREFIX + "' + #usernameOrEmail")
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
         User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found"));
-        return user;
+        return UserPrincipal.from(user);
     }
 
-    @Transactional
+    @Cacheable(value = CacheConstants.USERS, key = "'" + ID_KEY_PREFIX + "' + #id")
     public UserDetails loadUserById(Long id) throws UsernameNotFoundException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found"));
-        return user;
+        return UserPrincipal.from(user);
     }
 }
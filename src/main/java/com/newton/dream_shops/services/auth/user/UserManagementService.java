@@ -2,7 +2,7 @@ package com.newton.dream_shops.services.auth.user;
 
 import java.util.Optional;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,8 +12,10 @@ import com.newton.dream_shops.dto.auth.UpdatePasswordRequest;
 import com.newton.dream_shops.dto.auth.UpdateProfileRequest;
 import com.newton.dream_shops.dto.auth.UserInfo;
 import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.mapper.UserMapper;
 import com.newton.dream_shops.models.auth.User;
 import com.newton.dream_shops.repository.auth.UserRepository;
+import com.newton.dream_shops.security.jwt.TokenVersionService;
 import com.newton.dream_shops.services.auth.otp.IOtpService;
 import com.newton.dream_shops.services.email.IEmailService;
 import com.newton.dream_shops.util.jwt.JwtHelperService;
@@ -29,8 +31,10 @@ public class UserManagementService implements IUserManagementService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final JwtHelperService jwtHelperService;
+    private final TokenVersionService tokenVersionService;
+    private final ApplicationEventPublisher eventPublisher;
     private final IOtpService otpService;
     private final IEmailService emailService;
 
@@ -54,6 +58,7 @@ public class UserManagementService implements IUserManagementService {
         user.setPassword(passwordEncoder.encode(updatePasswordRequest.getNewPassword()));
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(savedUser));
 
         jwtHelperService.performLogoutAllDevices(request);
 
@@ -69,6 +74,8 @@ public class UserManagementService implements IUserManagementService {
 
         validateProfileUpdateRequest(user, updateProfileRequest);
 
+        // Captured before the update so the old username is evicted too
+        UserChangedEvent changedEvent = UserChangedEvent.of(user);
         boolean updated = false;
 
         if (StringUtils.hasText(updateProfileRequest.getFirstName()) &&
@@ -97,6 +104,7 @@ public class UserManagementService implements IUserManagementService {
 
         if (updated) {
             User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(changedEvent);
             return mapToUserInfo(savedUser);
         }
 
@@ -198,9 +206,7 @@ public class UserManagementService implements IUserManagementService {
     }
 
     public UserInfo mapToUserInfo(User user) {
-        UserInfo userInfo = modelMapper.map(user, UserInfo.class);
-
-        return userInfo;
+        return userMapper.toUserInfo(user);
     }
 
     
@@ -236,6 +242,8 @@ public class UserManagementService implements IUserManagementService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        tokenVersionService.revokeAll(user.getId());
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
 
         try {
             emailService.sendPasswordResetSuccess(user.getEmail(), user.getFirstName());
@@ -272,6 +280,9 @@ public class UserManagementService implements IUserManagementService {
     @Transactional
     public void deleteUser(HttpServletRequest request) {
         Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        userRepository.findById(userId)
+                .map(UserChangedEvent::of)
+                .ifPresent(eventPublisher::publishEvent);
         logoutAllDevices(request);
         Optional.ofNullable(userId)
                 .ifPresentOrElse(userRepository::deleteById, () -> {
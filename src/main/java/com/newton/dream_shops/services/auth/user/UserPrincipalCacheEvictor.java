@@ -0,0 +1,44 @@
+package com.newton.dream_shops.services.auth.user;
+
+import com.newton.dream_shops.constants.CacheConstants;
+import com.newton.dream_shops.repository.auth.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Drops cached principals once a change to the user has committed
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserPrincipalCacheEvictor {
+
+    private final CacheManager cacheManager;
+    private final UserRepository userRepository;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConstants.USERS);
+        if (cache == null) {
+            return;
+        }
+
+        // evictIfPresent is applied immediately, even by a transaction-aware cache
+        cache.evictIfPresent(UserDetailsServiceImpl.ID_KEY_PREFIX + event.userId());
+
+        Collection<String> names = event.names().isEmpty()
+                ? userRepository.findById(event.userId())
+                        .map(user -> List.of(user.getUsername(), user.getEmail()))
+                        .orElse(List.of())
+                : event.names();
+        names.forEach(name -> cache.evictIfPresent(UserDetailsServiceImpl.NAME_KEY_PREFIX + name));
+        log.debug("Evicted cached principal for user {}", event.userId());
+    }
+}
@@ -11,12 +11,14 @@ import com.newton.dream_shops.util.jwt.JwtHelperService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cart.mode", havingValue = "database", matchIfMissing = true)
 public class CartService implements ICartService {
 
     private final CartRepository cartRepository;
@@ -84,6 +86,13 @@ public class CartService implements ICartService {
         }
     }
 
+    @Override
+    @Transactional
+    public void clearOrderedCart(Long userId, Cart orderedCart) {
+        // The ordered cart is the managed cart of this transaction
+        clearCartForUser(userId);
+    }
+
     @Override
     @Transactional
     public void clearCartForCurrentUser(HttpServletRequest request) {
@@ -15,6 +15,13 @@ public interface ICartService {
 
     void clearCartForUser(Long userId);
 
+    /**
+     * Empty the cart that was just ordered, as part of the order's
+     * transaction. Only the lines of {@code orderedCart} are taken out of the
+     * live cart, so items the user added in the meantime stay in it.
+     */
+    void clearOrderedCart(Long userId, Cart orderedCart);
+
     void clearCartForCurrentUser(HttpServletRequest request);
 
     BigDecimal getTotalForUser(Long userId);
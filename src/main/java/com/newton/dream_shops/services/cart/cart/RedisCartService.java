@@ -0,0 +1,200 @@
+package com.newton.dream_shops.services.cart.cart;
+
+import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.models.auth.User;
+import com.newton.dream_shops.models.cart.Cart;
+import com.newton.dream_shops.models.cart.CartItem;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.auth.UserRepository;
+import com.newton.dream_shops.repository.cart.CartRepository;
+import com.newton.dream_shops.repository.product.ProductRepository;
+import com.newton.dream_shops.services.cart.store.RedisCartStore;
+import com.newton.dream_shops.services.cart.store.RedisCartStore.CartSnapshot;
+import com.newton.dream_shops.util.jwt.JwtHelperService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves carts from {@link RedisCartStore}. A cart is copied from the
+ * database the first time it is needed and changes are written back by
+ * {@link com.newton.dream_shops.services.cart.store.CartWriteBehind}, except
+ * that clearing a cart at checkout is written straight away as part of the
+ * order.
+ * <p>
+ * The carts returned are built from Redis and are not managed entities;
+ * changing them has no effect.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cart.mode", havingValue = "redis")
+public class RedisCartService implements ICartService {
+
+    private final RedisCartStore cartStore;
+    private final CartRepository cartRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final JwtHelperService jwtHelperService;
+
+    @Override
+    public Cart getCartByUserId(Long userId) {
+        CartSnapshot snapshot = cartStore.find(userId);
+        if (snapshot != null) {
+            return toCart(userId, snapshot);
+        }
+
+        Cart cart = cartRepository.findCartByUserId(userId);
+        if (cart != null) {
+            cartStore.seed(userId, cart);
+        }
+        return cart;
+    }
+
+    @Override
+    @Transactional
+    public Cart getOrCreateCartForUser(Long userId) {
+        Cart cart = getCartByUserId(userId);
+        if (cart != null) {
+            return cart;
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new CustomException("User not found with id: " + userId));
+
+        cart = new Cart();
+        cart.setUser(user);
+        cart.setTotalAmount(BigDecimal.ZERO);
+
+        Cart savedCart = cartRepository.save(cart);
+        cartStore.seed(userId, savedCart);
+        return savedCart;
+    }
+
+    /**
+     * Make sure the user's cart is in Redis, copying it from the database if needed
+     *
+     * @param create Whether to create the cart if the user has none
+     * @return False if the user has no cart and none was created
+     */
+    public boolean load(Long userId, boolean create) {
+        if (cartStore.find(userId) != null) {
+            return true;
+        }
+        return (create ? getOrCreateCartForUser(userId) : getCartByUserId(userId)) != null;
+    }
+
+    @Override
+    @Transactional
+    public Cart getOrCreateCartForCurrentUser(HttpServletRequest request) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        return getOrCreateCartForUser(userId);
+    }
+
+    @Override
+    @Transactional
+    public void clearCartForUser(Long userId) {
+        clearStoredCart(userId);
+        afterCommit(() -> cartStore.clear(userId));
+    }
+
+    @Override
+    @Transactional
+    public void clearOrderedCart(Long userId, Cart orderedCart) {
+        clearStoredCart(userId);
+
+        Map<Long, Integer> quantities = orderedCart.getCartItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), CartItem::getQuantity, Integer::sum));
+        // Lines added after the order read the cart are still dirty in Redis,
+        // so the write-behind puts them back in the cleared table copy
+        afterCommit(() -> cartStore.removeOrdered(userId, quantities));
+    }
+
+    /**
+     * Written through, so the cleared cart commits or rolls back with the order
+     */
+    private void clearStoredCart(Long userId) {
+        Cart cart = cartRepository.findCartByUserId(userId);
+        if (cart != null) {
+            cart.getCartItems().clear();
+            cart.setTotalAmount(BigDecimal.ZERO);
+            cartRepository.save(cart);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void clearCartForCurrentUser(HttpServletRequest request) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User Authentication required");
+        }
+        clearCartForUser(userId);
+    }
+
+    @Override
+    public BigDecimal getTotalForUser(Long userId) {
+        CartSnapshot snapshot = cartStore.find(userId);
+        if (snapshot != null) {
+            return snapshot.totalAmount();
+        }
+        Cart cart = getCartByUserId(userId);
+        return cart != null ? cart.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    @Override
+    public BigDecimal getTotalForCurrentUser(HttpServletRequest request) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        return getTotalForUser(userId);
+    }
+
+    private Cart toCart(Long userId, CartSnapshot snapshot) {
+        Map<Long, Product> products = productRepository.findAllById(snapshot.lines().keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Cart cart = new Cart();
+        cart.setId(snapshot.cartId());
+        cart.setUser(userRepository.getReferenceById(userId));
+        snapshot.lines().forEach((productId, line) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                return;
+            }
+            CartItem item = new CartItem();
+            item.setProduct(product);
+            item.setQuantity(line.quantity());
+            item.setUnitPrice(line.unitPrice());
+            item.setTotalPrice();
+            cart.addItem(item);
+        });
+        return cart;
+    }
+}
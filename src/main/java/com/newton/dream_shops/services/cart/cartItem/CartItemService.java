@@ -1,11 +1,13 @@
 package com.newton.dream_shops.services.cart.cartItem;
 
-import com.newton.dream_shops.dto.product.ProductDto;
+import com.newton.dream_shops.dto.cart.CartBatchResultDto;
+import com.newton.dream_shops.dto.cart.CartItemOperation;
+import com.newton.dream_shops.dto.cart.CartOperationResultDto;
+import com.newton.dream_shops.dto.product.ProductSummaryDto;
 import com.newton.dream_shops.exception.CustomException;
 import com.newton.dream_shops.models.cart.Cart;
 import com.newton.dream_shops.models.cart.CartItem;
 import com.newton.dream_shops.models.product.Product;
-import com.newton.dream_shops.repository.cart.CartItemRepository;
 import com.newton.dream_shops.repository.cart.CartRepository;
 import com.newton.dream_shops.repository.product.ProductRepository;
 import com.newton.dream_shops.services.cart.cart.ICartService;
@@ -16,15 +18,20 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "app.cart.mode", havingValue = "database", matchIfMissing = true)
 public class CartItemService implements ICartItemService {
-    private final CartItemRepository cartItemRepository;
     private final CartRepository cartRepository;
     private final IProductService productService;
     private final ICartService cartService;
@@ -41,28 +48,27 @@ public class CartItemService implements ICartItemService {
         // 5. If no, then initiate a new cart item entry
 
         Cart cart = cartService.getOrCreateCartForUser(userId);
-        ProductDto productDto = productService.getProductById(productId);
-        Product product = productRepository.findById(productDto.getId())
-                .orElseThrow(() -> new CustomException("Product Not Found"));
+        ProductSummaryDto product = productService.getProductSummary(productId);
 
         CartItem cartItem = cart.getCartItems()
                 .stream()
                 .filter(item -> item.getProduct()
                         .getId().equals(productId))
                 .findFirst()
-                .orElse(new CartItem());
+                .orElse(null);
 
-        if (cartItem.getId() == null) {
-            cartItem.setCart(cart);
-            cartItem.setProduct(product);
+        if (cartItem == null) {
+            cartItem = new CartItem();
+            // The summary proves the product exists, so a reference is enough to link it
+            cartItem.setProduct(productRepository.getReferenceById(productId));
             cartItem.setQuantity(quantity);
             cartItem.setUnitPrice(product.getPrice());
+            cartItem.setTotalPrice();
+            cart.addItem(cartItem);
         } else {
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
+            cart.updateItem(cartItem, cartItem.getQuantity() + quantity, cartItem.getUnitPrice());
         }
-        cartItem.setTotalPrice();
-        cart.addItem(cartItem);
-        cartItemRepository.save(cartItem);
+        // The new item is saved through the cart's cascade
         cartRepository.save(cart);
     }
 
@@ -90,9 +96,10 @@ public class CartItemService implements ICartItemService {
             throw new CustomException("Cart not found for user");
         }
 
-        CartItem cartItem = getCartItemForUser(userId, productId);
+        CartItem cartItem = findItem(cart, productId)
+                .orElseThrow(() -> new CustomException("Item not found"));
+        // Orphan removal deletes the item
         cart.removeItem(cartItem);
-        cartItemRepository.delete(cartItem);
         cartRepository.save(cart);
     }
 
@@ -125,25 +132,9 @@ public class CartItemService implements ICartItemService {
             throw new CustomException("Cart not found for user");
         }
 
-        cart.getCartItems()
-                .stream()
-                .filter(item -> item.getProduct()
-                        .getId().equals(productId))
-                .findFirst()
-                .ifPresentOrElse(item -> {
-                    item.setQuantity(quantity);
-                    item.setUnitPrice(item.getProduct().getPrice());
-                    item.setTotalPrice();
-                    cartItemRepository.save(item);
-                }, () -> {
-                    throw new CustomException("Item not found in cart");
-                });
-
-        BigDecimal totalAmount = cart.getCartItems()
-                .stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cart.setTotalAmount(totalAmount);
+        CartItem cartItem = findItem(cart, productId)
+                .orElseThrow(() -> new CustomException("Item not found in cart"));
+        cart.updateItem(cartItem, quantity, cartItem.getProduct().getPrice());
         cartRepository.save(cart);
     }
 
@@ -175,12 +166,95 @@ public class CartItemService implements ICartItemService {
             throw new CustomException("Cart not found for user");
         }
 
+        return findItem(cart, productId)
+                .orElseThrow(() -> new CustomException("Item not found"));
+    }
+
+    @Override
+    @Transactional
+    public CartBatchResultDto applyOperations(Long userId, List<CartItemOperation> operations) {
+        CartOperations.checkBatch(operations);
+
+        Cart cart = cartService.getOrCreateCartForUser(userId);
+        Map<Long, Product> products = CartOperations.loadProducts(productRepository, operations);
+        Map<Long, CartItem> items = new HashMap<>();
+        cart.getCartItems().forEach(item -> items.put(item.getProduct().getId(), item));
+
+        List<CartOperationResultDto> results = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            CartItemOperation operation = operations.get(i);
+            String error = CartOperations.validate(operation, products);
+            if (error == null) {
+                error = apply(cart, items, operation, products.get(operation.getProductId()));
+            }
+            Long productId = operation == null ? null : operation.getProductId();
+            results.add(error == null
+                    ? CartOperationResultDto.succeeded(i, productId)
+                    : CartOperationResultDto.failed(i, productId, error));
+        }
+
+        cartRepository.save(cart);
+        return new CartBatchResultDto(cart, results);
+    }
+
+    @Override
+    @Transactional
+    public CartBatchResultDto applyOperationsForCurrentUser(HttpServletRequest request, List<CartItemOperation> operations) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        return applyOperations(userId, operations);
+    }
+
+    /**
+     * @return Why the operation could not be applied, or null if it was
+     */
+    private static String apply(Cart cart, Map<Long, CartItem> items, CartItemOperation operation, Product product) {
+        Long productId = operation.getProductId();
+        CartItem cartItem = items.get(productId);
+        switch (operation.getType()) {
+            case ADD -> {
+                if (cartItem == null) {
+                    cartItem = new CartItem();
+                    cartItem.setProduct(product);
+                    cartItem.setQuantity(operation.getQuantity());
+                    cartItem.setUnitPrice(product.getPrice());
+                    cartItem.setTotalPrice();
+                    cart.addItem(cartItem);
+                    items.put(productId, cartItem);
+                } else {
+                    cart.updateItem(cartItem, cartItem.getQuantity() + operation.getQuantity(), cartItem.getUnitPrice());
+                }
+            }
+            case UPDATE -> {
+                if (cartItem == null) {
+                    return "Item not found in cart";
+                }
+                if (operation.getQuantity() == 0) {
+                    cart.removeItem(cartItem);
+                    items.remove(productId);
+                } else {
+                    cart.updateItem(cartItem, operation.getQuantity(), product.getPrice());
+                }
+            }
+            case REMOVE -> {
+                if (cartItem == null) {
+                    return "Item not found";
+                }
+                cart.removeItem(cartItem);
+                items.remove(productId);
+            }
+        }
+        return null;
+    }
+
+    private static Optional<CartItem> findItem(Cart cart, Long productId) {
         return cart.getCartItems()
                 .stream()
                 .filter(item -> item.getProduct()
                         .getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new CustomException("Item not found"));
+                .findFirst();
     }
 
     @Override
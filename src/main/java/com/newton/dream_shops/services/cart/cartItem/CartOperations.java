@@ -0,0 +1,74 @@
+package com.newton.dream_shops.services.cart.cartItem;
+
+import com.newton.dream_shops.dto.cart.CartItemOperation;
+import com.newton.dream_shops.enums.CartOperationType;
+import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.product.ProductRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks shared by the cart services for batches of cart operations
+ */
+final class CartOperations {
+
+    static final int MAX_OPERATIONS = 100;
+
+    private CartOperations() {
+    }
+
+    static void checkBatch(List<CartItemOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new CustomException("At least one cart operation is required");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new CustomException("At most " + MAX_OPERATIONS + " cart operations are allowed per request");
+        }
+    }
+
+    /**
+     * Load every product the batch refers to in one query
+     */
+    static Map<Long, Product> loadProducts(ProductRepository productRepository, List<CartItemOperation> operations) {
+        List<Long> productIds = operations.stream()
+                .filter(Objects::nonNull)
+                .map(CartItemOperation::getProductId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * @return Why the operation cannot be applied, or null if it is well formed
+     */
+    static String validate(CartItemOperation operation, Map<Long, Product> products) {
+        if (operation == null || operation.getType() == null) {
+            return "Operation type is required";
+        }
+        if (operation.getProductId() == null) {
+            return "Product id is required";
+        }
+        if (operation.getType() == CartOperationType.REMOVE) {
+            return null;
+        }
+
+        Integer quantity = operation.getQuantity();
+        if (operation.getType() == CartOperationType.ADD && (quantity == null || quantity <= 0)) {
+            return "Quantity must be greater than 0";
+        }
+        if (operation.getType() == CartOperationType.UPDATE && (quantity == null || quantity < 0)) {
+            return "Quantity cannot be negative";
+        }
+        if (!products.containsKey(operation.getProductId())) {
+            return "Product Not Found";
+        }
+        return null;
+    }
+}
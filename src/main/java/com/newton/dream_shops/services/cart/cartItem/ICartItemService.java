@@ -1,9 +1,13 @@
 package com.newton.dream_shops.services.cart.cartItem;
 
+import com.newton.dream_shops.dto.cart.CartBatchResultDto;
+import com.newton.dream_shops.dto.cart.CartItemOperation;
 import com.newton.dream_shops.models.cart.CartItem;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.List;
+
 public interface ICartItemService {
     void addItemToCart(Long userId, Long productId, int quantity);
  
@@ -24,4 +28,11 @@ public interface ICartItemService {
     
     CartItem getCartItemForUser(Long userId, Long productId);
     CartItem getCartItemForCurrentUser(HttpServletRequest request, Long productId);
+
+    /**
+     * Apply a list of cart operations in order. An operation that cannot be
+     * applied is reported in the results and does not stop the others.
+     */
+    CartBatchResultDto applyOperations(Long userId, List<CartItemOperation> operations);
+    CartBatchResultDto applyOperationsForCurrentUser(HttpServletRequest request, List<CartItemOperation> operations);
 }
@@ -0,0 +1,217 @@
+package com.newton.dream_shops.services.cart.cartItem;
+
+import com.newton.dream_shops.dto.cart.CartBatchResultDto;
+import com.newton.dream_shops.dto.cart.CartItemOperation;
+import com.newton.dream_shops.dto.cart.CartOperationResultDto;
+import com.newton.dream_shops.enums.CartOperationType;
+import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.models.cart.Cart;
+import com.newton.dream_shops.models.cart.CartItem;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.product.ProductRepository;
+import com.newton.dream_shops.services.cart.cart.RedisCartService;
+import com.newton.dream_shops.services.cart.store.RedisCartStore;
+import com.newton.dream_shops.services.products.IProductService;
+import com.newton.dream_shops.util.jwt.JwtHelperService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Changes carts held in {@link RedisCartStore}. Each change is one atomic
+ * Redis call; prices come from the cached product summary, so a change does not
+ * touch the database once the cart is in Redis.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cart.mode", havingValue = "redis")
+public class RedisCartItemService implements ICartItemService {
+    private final RedisCartStore cartStore;
+    private final RedisCartService cartService;
+    private final IProductService productService;
+    private final JwtHelperService jwtHelperService;
+    private final ProductRepository productRepository;
+
+    @Override
+    public void addItemToCart(Long userId, Long productId, int quantity) {
+        BigDecimal price = productService.getProductSummary(productId).getPrice();
+        apply(userId, true, () -> cartStore.add(userId, productId, quantity, price));
+    }
+
+    @Override
+    public void addItemToCartForUser(Long userId, Long productId, int quantity) {
+        addItemToCart(userId, productId, quantity);
+    }
+
+    @Override
+    public void addItemToCartForCurrentUser(HttpServletRequest request, Long productId, int quantity) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        addItemToCartForUser(userId, productId, quantity);
+    }
+
+    @Override
+    public void removeItemFromCart(Long userId, Long productId) {
+        long result = apply(userId, false, () -> cartStore.remove(userId, productId));
+        if (result == RedisCartStore.NOT_IN_CART) {
+            throw new CustomException("Item not found");
+        }
+    }
+
+    @Override
+    public void removeItemFromCartForUser(Long userId, Long productId) {
+        removeItemFromCart(userId, productId);
+    }
+
+    @Override
+    public void removeItemFromCartForCurrentUser(HttpServletRequest request, Long productId) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        removeItemFromCartForUser(userId, productId);
+    }
+
+    @Override
+    public void updateItemInCart(Long userId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            removeItemFromCart(userId, productId);
+            return;
+        }
+
+        BigDecimal price = productService.getProductSummary(productId).getPrice();
+        long result = apply(userId, false, () -> cartStore.set(userId, productId, quantity, price));
+        if (result == RedisCartStore.NOT_IN_CART) {
+            throw new CustomException("Item not found in cart");
+        }
+    }
+
+    @Override
+    public void updateItemInCartForUser(Long userId, Long productId, int quantity) {
+        updateItemInCart(userId, productId, quantity);
+    }
+
+    @Override
+    public void updateItemInCartForCurrentUser(HttpServletRequest request, Long productId, int quantity) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        updateItemInCartForUser(userId, productId, quantity);
+    }
+
+    @Override
+    public CartItem getCartItemById(Long userId, Long productId) {
+        return getCartItemForUser(userId, productId);
+    }
+
+    @Override
+    public CartItem getCartItemForUser(Long userId, Long productId) {
+        Cart cart = cartService.getCartByUserId(userId);
+        if (cart == null) {
+            throw new CustomException("Cart not found for user");
+        }
+
+        return cart.getCartItems()
+                .stream()
+                .filter(item -> item.getProduct()
+                        .getId().equals(productId))
+                .findFirst()
+                .orElseThrow(() -> new CustomException("Item not found"));
+    }
+
+    @Override
+    public CartItem getCartItemForCurrentUser(HttpServletRequest request, Long productId) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        return getCartItemForUser(userId, productId);
+    }
+
+    /**
+     * Each operation is its own atomic change; the batch as a whole is not
+     */
+    @Override
+    public CartBatchResultDto applyOperations(Long userId, List<CartItemOperation> operations) {
+        CartOperations.checkBatch(operations);
+
+        cartService.load(userId, true);
+        Map<Long, Product> products = CartOperations.loadProducts(productRepository, operations);
+
+        List<CartOperationResultDto> results = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            CartItemOperation operation = operations.get(i);
+            String error = CartOperations.validate(operation, products);
+            if (error == null) {
+                error = apply(userId, operation, products.get(operation.getProductId()));
+            }
+            Long productId = operation == null ? null : operation.getProductId();
+            results.add(error == null
+                    ? CartOperationResultDto.succeeded(i, productId)
+                    : CartOperationResultDto.failed(i, productId, error));
+        }
+
+        return new CartBatchResultDto(cartService.getCartByUserId(userId), results);
+    }
+
+    @Override
+    public CartBatchResultDto applyOperationsForCurrentUser(HttpServletRequest request, List<CartItemOperation> operations) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        return applyOperations(userId, operations);
+    }
+
+    /**
+     * @return Why the operation could not be applied, or null if it was
+     */
+    private String apply(Long userId, CartItemOperation operation, Product product) {
+        Long productId = operation.getProductId();
+        long result = switch (operation.getType()) {
+            case ADD -> cartStore.add(userId, productId, operation.getQuantity(), product.getPrice());
+            case UPDATE -> operation.getQuantity() == 0
+                    ? cartStore.remove(userId, productId)
+                    : cartStore.set(userId, productId, operation.getQuantity(), product.getPrice());
+            case REMOVE -> cartStore.remove(userId, productId);
+        };
+        if (result == RedisCartStore.NOT_IN_CART) {
+            return operation.getType() == CartOperationType.REMOVE ? "Item not found" : "Item not found in cart";
+        }
+        if (result == RedisCartStore.NOT_LOADED) {
+            return "Could not update cart, please try again";
+        }
+        return null;
+    }
+
+    /**
+     * Run a change, copying the cart into Redis first if it is not there yet
+     *
+     * @param create Whether to create the cart if the user has none
+     */
+    private long apply(Long userId, boolean create, LongSupplier change) {
+        long result = change.getAsLong();
+        if (result != RedisCartStore.NOT_LOADED) {
+            return result;
+        }
+        if (!cartService.load(userId, create)) {
+            throw new CustomException("Cart not found for user");
+        }
+        result = change.getAsLong();
+        if (result == RedisCartStore.NOT_LOADED) {
+            throw new CustomException("Could not update cart, please try again");
+        }
+        return result;
+    }
+}
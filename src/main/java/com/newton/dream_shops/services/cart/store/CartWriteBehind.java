@@ -0,0 +1,172 @@
+package com.newton.dream_shops.services.cart.store;
+
+import com.newton.dream_shops.cache.RedisLoadLock;
+import com.newton.dream_shops.models.cart.Cart;
+import com.newton.dream_shops.models.cart.CartItem;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.cart.CartRepository;
+import com.newton.dream_shops.repository.product.ProductRepository;
+import com.newton.dream_shops.services.cart.store.RedisCartStore.CartSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes carts changed in Redis back to the cart tables.
+ * <p>
+ * A cart is written once it has been dirty for the coalescing delay, so a
+ * burst of changes costs one write. Carts are written in batches, each in one
+ * transaction; if a batch fails its carts are retried one by one so that a
+ * single bad cart cannot hold back the rest. Carts that still fail stay dirty
+ * and are retried on a later run.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.cart.mode", havingValue = "redis")
+public class CartWriteBehind {
+
+    private static final String LOCK_NAME = "write-behind";
+
+    private final RedisCartStore store;
+    private final CartRepository cartRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisLoadLock lock;
+
+    @Value("${app.cart.write-behind.delay-ms:2000}")
+    private long delayMs;
+
+    @Value("${app.cart.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.cart.write-behind.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    public CartWriteBehind(RedisCartStore store,
+                           CartRepository cartRepository,
+                           ProductRepository productRepository,
+                           TransactionTemplate transactionTemplate,
+                           StringRedisTemplate redisTemplate) {
+        this.store = store;
+        this.cartRepository = cartRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lock = new RedisLoadLock(redisTemplate, RedisCartStore.KEY_PREFIX + "lock:", Duration.ofMinutes(1));
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.interval-ms:1000}")
+    public void flush() {
+        String token = lock.tryAcquire(LOCK_NAME);
+        if (token == null) {
+            return;
+        }
+
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                if (flushBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Cart write-behind failed: {}", e.getMessage());
+        } finally {
+            lock.release(LOCK_NAME, token);
+        }
+    }
+
+    private int flushBatch() {
+        Set<String> due = store.findDirtySince(System.currentTimeMillis() - delayMs, batchSize);
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, CartSnapshot> snapshots = new LinkedHashMap<>();
+        for (String userId : due) {
+            CartSnapshot snapshot = store.claim(Long.valueOf(userId));
+            if (snapshot != null && snapshot.cartId() != null) {
+                snapshots.put(Long.valueOf(userId), snapshot);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBack(snapshots));
+        } catch (Exception e) {
+            log.warn("Writing back {} carts failed, retrying one by one: {}", snapshots.size(), e.getMessage());
+            snapshots.forEach((userId, snapshot) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeBack(Map.of(userId, snapshot)));
+                } catch (Exception single) {
+                    store.markDirty(userId);
+                    log.error("Writing back the cart of user {} failed: {}", userId, single.getMessage());
+                }
+            });
+        }
+        log.debug("Wrote back {} carts", snapshots.size());
+        return due.size();
+    }
+
+    private void writeBack(Map<Long, CartSnapshot> snapshots) {
+        List<Long> cartIds = snapshots.values().stream().map(CartSnapshot::cartId).toList();
+        Map<Long, Cart> carts = cartRepository.findCartsByIdIn(cartIds).stream()
+                .collect(Collectors.toMap(Cart::getId, Function.identity()));
+
+        Set<Long> productIds = new HashSet<>();
+        snapshots.values().forEach(snapshot -> productIds.addAll(snapshot.lines().keySet()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        snapshots.forEach((userId, snapshot) -> {
+            Cart cart = carts.get(snapshot.cartId());
+            if (cart == null) {
+                log.warn("Cart {} of user {} no longer exists, dropping its changes", snapshot.cartId(), userId);
+                return;
+            }
+            apply(cart, snapshot, products);
+        });
+    }
+
+    private static void apply(Cart cart, CartSnapshot snapshot, Map<Long, Product> products) {
+        Map<Long, CartItem> existing = new LinkedHashMap<>();
+        for (CartItem item : new ArrayList<>(cart.getCartItems())) {
+            Long productId = item.getProduct().getId();
+            if (snapshot.lines().containsKey(productId) && products.containsKey(productId)) {
+                existing.put(productId, item);
+            } else {
+                cart.removeItem(item);
+            }
+        }
+
+        snapshot.lines().forEach((productId, line) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                // Deleted since it was added to the cart
+                return;
+            }
+            CartItem item = existing.get(productId);
+            if (item == null) {
+                item = new CartItem();
+                item.setProduct(product);
+                item.setQuantity(line.quantity());
+                item.setUnitPrice(line.unitPrice());
+                item.setTotalPrice();
+                cart.addItem(item);
+            } else {
+                cart.updateItem(item, line.quantity(), line.unitPrice());
+            }
+        });
+    }
+}
@@ -0,0 +1,280 @@
+package com.newton.dream_shops.services.cart.store;
+
+import com.newton.dream_shops.models.cart.Cart;
+import com.newton.dream_shops.models.cart.CartItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the live carts in Redis, one hash per user, with the cart id and a
+ * quantity and unit price field per product. Every change is a single script
+ * that also marks the user's cart dirty, so {@link CartWriteBehind} sees
+ * every change it has to write back to the cart tables.
+ * <p>
+ * Changes to a cart that is not in Redis yet return {@link #NOT_LOADED};
+ * the caller seeds it from the database and retries.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cart.mode", havingValue = "redis")
+public class RedisCartStore {
+
+    // The hash tag keeps every cart key in one cluster slot with the dirty set, as the scripts need
+    static final String KEY_PREFIX = "dream-shops:{cart}:";
+    private static final String CART_PREFIX = KEY_PREFIX + "user:";
+    private static final String DIRTY_KEY = KEY_PREFIX + "dirty";
+
+    private static final String ID_FIELD = "id";
+    private static final String QUANTITY_PREFIX = "q:";
+    private static final String PRICE_PREFIX = "p:";
+
+    public static final long NOT_LOADED = -1;
+    public static final long NOT_IN_CART = 0;
+
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            local quantity = redis.call('HINCRBY', KEYS[1], 'q:' .. ARGV[1], ARGV[2])
+            redis.call('HSETNX', KEYS[1], 'p:' .. ARGV[1], ARGV[3])
+            redis.call('ZADD', KEYS[2], 'NX', ARGV[4], ARGV[5])
+            redis.call('EXPIRE', KEYS[1], ARGV[6])
+            return quantity
+            """, Long.class);
+
+    private static final RedisScript<Long> SET_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            if redis.call('HEXISTS', KEYS[1], 'q:' .. ARGV[1]) == 0 then return 0 end
+            redis.call('HSET', KEYS[1], 'q:' .. ARGV[1], ARGV[2], 'p:' .. ARGV[1], ARGV[3])
+            redis.call('ZADD', KEYS[2], 'NX', ARGV[4], ARGV[5])
+            redis.call('EXPIRE', KEYS[1], ARGV[6])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            if redis.call('HDEL', KEYS[1], 'q:' .. ARGV[1]) == 0 then return 0 end
+            redis.call('HDEL', KEYS[1], 'p:' .. ARGV[1])
+            redis.call('ZADD', KEYS[2], 'NX', ARGV[2], ARGV[3])
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> CLEAR_SCRIPT = new DefaultRedisScript<>("""
+            local id = redis.call('HGET', KEYS[1], 'id')
+            if not id then return 0 end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'id', id)
+            redis.call('ZADD', KEYS[2], 'NX', ARGV[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> REMOVE_ORDERED_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            for i = 4, #ARGV, 2 do
+              local field = 'q:' .. ARGV[i]
+              local left = tonumber(redis.call('HGET', KEYS[1], field) or '0') - tonumber(ARGV[i + 1])
+              if left > 0 then
+                redis.call('HSET', KEYS[1], field, left)
+              else
+                redis.call('HDEL', KEYS[1], field, 'p:' .. ARGV[i])
+              end
+            end
+            redis.call('ZADD', KEYS[2], 'NX', ARGV[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            redis.call('HSET', KEYS[1], 'id', ARGV[1])
+            for i = 3, #ARGV, 3 do
+              redis.call('HSET', KEYS[1], 'q:' .. ARGV[i], ARGV[i + 1], 'p:' .. ARGV[i], ARGV[i + 2])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return redis.call('HGETALL', KEYS[2])
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Only needs to outlive the write-behind delay; idle carts are reloaded from the database
+    @Value("${app.cart.idle-ttl-hours:72}")
+    private long idleTtlHours;
+
+    /**
+     * A cart as held in Redis
+     *
+     * @param lines Quantity and unit price per product id, in no particular order
+     */
+    public record CartSnapshot(Long cartId, Map<Long, Line> lines) {
+
+        public BigDecimal totalAmount() {
+            return lines.values().stream()
+                    .map(line -> line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    public record Line(int quantity, BigDecimal unitPrice) {
+    }
+
+    /**
+     * @return The cart, or null if it is not in Redis
+     */
+    public CartSnapshot find(Long userId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(cartKey(userId));
+        return fields.isEmpty() ? null : toSnapshot(fields);
+    }
+
+    /**
+     * Copy a cart from the database unless the user's cart is already in Redis
+     */
+    public void seed(Long userId, Cart cart) {
+        List<String> args = new ArrayList<>();
+        args.add(cart.getId().toString());
+        args.add(ttlSeconds());
+        for (CartItem item : cart.getCartItems()) {
+            args.add(item.getProduct().getId().toString());
+            args.add(Integer.toString(item.getQuantity()));
+            args.add(item.getUnitPrice().toPlainString());
+        }
+        redisTemplate.execute(SEED_SCRIPT, List.of(cartKey(userId)), args.toArray());
+    }
+
+    /**
+     * Add to a product's quantity, keeping the unit price it was first added at
+     *
+     * @return The new quantity, or {@link #NOT_LOADED}
+     */
+    public long add(Long userId, Long productId, int quantity, BigDecimal unitPrice) {
+        return redisTemplate.execute(ADD_SCRIPT, keys(userId),
+                productId.toString(), Integer.toString(quantity), unitPrice.toPlainString(),
+                now(), userId.toString(), ttlSeconds());
+    }
+
+    /**
+     * Replace the quantity and unit price of a product already in the cart
+     *
+     * @return 1, {@link #NOT_IN_CART} or {@link #NOT_LOADED}
+     */
+    public long set(Long userId, Long productId, int quantity, BigDecimal unitPrice) {
+        return redisTemplate.execute(SET_SCRIPT, keys(userId),
+                productId.toString(), Integer.toString(quantity), unitPrice.toPlainString(),
+                now(), userId.toString(), ttlSeconds());
+    }
+
+    /**
+     * @return 1, {@link #NOT_IN_CART} or {@link #NOT_LOADED}
+     */
+    public long remove(Long userId, Long productId) {
+        return redisTemplate.execute(REMOVE_SCRIPT, keys(userId),
+                productId.toString(), now(), userId.toString(), ttlSeconds());
+    }
+
+    /**
+     * Empty the cart if it is in Redis
+     */
+    public void clear(Long userId) {
+        redisTemplate.execute(CLEAR_SCRIPT, keys(userId), now(), userId.toString(), ttlSeconds());
+    }
+
+    /**
+     * Take the quantities of an order out of the cart if it is in Redis.
+     * Lines added, or quantities raised, after the order read the cart are
+     * left in it.
+     *
+     * @param quantities Ordered quantity per product id
+     */
+    public void removeOrdered(Long userId, Map<Long, Integer> quantities) {
+        List<String> args = new ArrayList<>();
+        args.add(now());
+        args.add(userId.toString());
+        args.add(ttlSeconds());
+        quantities.forEach((productId, quantity) -> {
+            args.add(productId.toString());
+            args.add(quantity.toString());
+        });
+        redisTemplate.execute(REMOVE_ORDERED_SCRIPT, keys(userId), args.toArray());
+    }
+
+    /**
+     * @return Ids of users whose carts have changed since they were last
+     * written back, and were first changed before the given time
+     */
+    Set<String> findDirtySince(long beforeMillis, int limit) {
+        return redisTemplate.opsForZSet().rangeByScore(DIRTY_KEY, 0, beforeMillis, 0, limit);
+    }
+
+    /**
+     * Take a cart off the dirty set and return its contents in one step, so
+     * a change made after this call marks the cart dirty again
+     *
+     * @return The cart, or null if it is no longer in Redis
+     */
+    CartSnapshot claim(Long userId) {
+        List<?> result = redisTemplate.execute(CLAIM_SCRIPT, List.of(DIRTY_KEY, cartKey(userId)), userId.toString());
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < result.size(); i += 2) {
+            fields.put(String.valueOf(result.get(i)), String.valueOf(result.get(i + 1)));
+        }
+        return toSnapshot(fields);
+    }
+
+    /**
+     * Put a cart back on the dirty set after writing it back failed
+     */
+    void markDirty(Long userId) {
+        redisTemplate.opsForZSet().addIfAbsent(DIRTY_KEY, userId.toString(), System.currentTimeMillis());
+    }
+
+    private static CartSnapshot toSnapshot(Map<String, String> fields) {
+        Map<Long, Line> lines = new LinkedHashMap<>();
+        fields.forEach((field, value) -> {
+            if (field.startsWith(QUANTITY_PREFIX)) {
+                String productId = field.substring(QUANTITY_PREFIX.length());
+                String price = fields.get(PRICE_PREFIX + productId);
+                lines.put(Long.valueOf(productId), new Line(Integer.parseInt(value),
+                        price == null ? BigDecimal.ZERO : new BigDecimal(price)));
+            }
+        });
+        String id = fields.get(ID_FIELD);
+        return new CartSnapshot(id == null ? null : Long.valueOf(id), lines);
+    }
+
+    private static List<String> keys(Long userId) {
+        return List.of(cartKey(userId), DIRTY_KEY);
+    }
+
+    private static String cartKey(Long userId) {
+        return CART_PREFIX + userId;
+    }
+
+    private static String now() {
+        return Long.toString(System.currentTimeMillis());
+    }
+
+    private String ttlSeconds() {
+        return Long.toString(Duration.ofHours(idleTtlHours).toSeconds());
+    }
+}
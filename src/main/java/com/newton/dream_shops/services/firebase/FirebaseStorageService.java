@@ -2,6 +2,7 @@ package com.newton.dream_shops.services.firebase;
 
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
@@ -14,6 +15,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.PostConstruct;
+import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -27,8 +30,25 @@ public class FirebaseStorageService {
     @Value("${firebase.credentials.path}")
     private String credentialsPath;
 
+    // Upload buffer per file; the client rounds it up to a multiple of 256 KiB
+    @Value("${app.images.upload.chunk-size:1048576}")
+    private int uploadChunkSize;
+
     private Storage storage;
 
+    public FirebaseStorageService() {
+    }
+
+    /**
+     * Use the given storage client instead of one built from the service
+     * account, for running against a local fake
+     */
+    public FirebaseStorageService(Storage storage, String bucketName, int uploadChunkSize) {
+        this.storage = storage;
+        this.bucketName = bucketName;
+        this.uploadChunkSize = uploadChunkSize;
+    }
+
     @PostConstruct
     private void initializeFirebase() throws Exception {
         try {
@@ -48,7 +68,8 @@ public class FirebaseStorageService {
     }
 
     /**
-     * Upload file to Firebase Storage
+     * Upload file to Firebase Storage. The file is streamed up in chunks
+     * rather than read into memory whole.
      *
      * @param file     The file to upload
      * @param fileName Optional custom file name
@@ -71,7 +92,10 @@ public class FirebaseStorageService {
                 .setContentType(file.getContentType())
                 .build();
 
-        storage.create(blobInfo, file.getBytes());
+        try (InputStream in = file.getInputStream(); WriteChannel writer = storage.writer(blobInfo)) {
+            writer.setChunkSize(uploadChunkSize);
+            in.transferTo(Channels.newOutputStream(writer));
+        }
 
         //Generate the download URL (valid for 10 years....)
         String downloadUrl = storage.signUrl(blobInfo, 10 * 365, TimeUnit.DAYS).toString();
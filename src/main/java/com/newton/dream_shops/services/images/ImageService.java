@@ -3,33 +3,46 @@ package com.newton.dream_shops.services.images;
 import com.newton.dream_shops.dto.firebase.FirebaseFileDto;
 import com.newton.dream_shops.dto.image.ImageResponseDto;
 import com.newton.dream_shops.dto.image.ImageUploadDto;
-import com.newton.dream_shops.dto.product.ProductDto;
 import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.mapper.ImageMapper;
 import com.newton.dream_shops.models.image.Image;
 import com.newton.dream_shops.models.product.Product;
 import com.newton.dream_shops.repository.image.ImageRepository;
-import com.newton.dream_shops.repository.product.ProductRepository;
 import com.newton.dream_shops.services.firebase.FirebaseStorageService;
 import com.newton.dream_shops.services.products.IProductService;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ImageService implements IImageService {
     private final ImageRepository imageRepository;
     private final IProductService productService;
     private final FirebaseStorageService firebaseStorageService;
-    private final ProductRepository productRepository;
+    private final ImageMapper imageMapper;
+    private final TaskExecutor imageUploadExecutor;
+
+    public ImageService(ImageRepository imageRepository,
+                        IProductService productService,
+                        FirebaseStorageService firebaseStorageService,
+                        ImageMapper imageMapper,
+                        @Qualifier("imageUploadExecutor") TaskExecutor imageUploadExecutor) {
+        this.imageRepository = imageRepository;
+        this.productService = productService;
+        this.firebaseStorageService = firebaseStorageService;
+        this.imageMapper = imageMapper;
+        this.imageUploadExecutor = imageUploadExecutor;
+    }
 
     @Override
     public Image getImageById(Long id) {
@@ -50,24 +63,55 @@ public class ImageService implements IImageService {
         }
     }
 
+    /**
+     * Upload the files concurrently, then save their images in one batch.
+     * Files that cannot be read are skipped; if any other upload fails, or
+     * the images cannot be saved, the files already uploaded are deleted
+     * again.
+     */
     @Override
     public List<ImageResponseDto> saveImage(List<MultipartFile> files, Long productId) {
-         ProductDto productDto = productService.getProductById(productId);
-        Product product = productRepository.findById(productDto.getId())
-                .orElseThrow(() -> new CustomException("Product Not Found"));
-
-        return files.stream()
-                .map(file -> processAndSaveImage(file, product))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        Product product = productService.getProductReference(productId);
+
+        // The request thread waits for every upload, so the multipart files stay readable
+        List<CompletableFuture<Image>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> upload(file, product), imageUploadExecutor))
+                .toList();
+
+        List<Image> images = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<Image> upload : uploads) {
+            try {
+                Image image = upload.join();
+                if (image != null) {
+                    images.add(image);
+                }
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            deleteUploaded(images);
+            throw failure;
+        }
+
+        try {
+            return imageMapper.toDtos(imageRepository.saveAll(images));
+        } catch (RuntimeException e) {
+            deleteUploaded(images);
+            throw e;
+        }
     }
 
     /**
-     * Process and save a single image file
+     * Upload a single image file
+     *
+     * @return The image to save, or null if the file could not be read
      */
-
-    private Optional<ImageResponseDto> processAndSaveImage(MultipartFile file, Product product) {
+    private Image upload(MultipartFile file, Product product) {
         try {
             ImageUploadDto uploadDto = ImageUploadDto.fromMultipartFile(file);
             Image image = uploadDto.toImageEntity();
@@ -77,18 +121,19 @@ public class ImageService implements IImageService {
             FirebaseFileDto firebaseFileDto = firebaseStorageService.uploadFile(file, image.getFileName());
             image.setImageUrl(firebaseFileDto.getDownloadUrl());
             image.setStoragePath(firebaseFileDto.getStoragePath());
-
-            Image savedImage = imageRepository.save(image);
-
-            return Optional.of(ImageUploadDto.toImageDto(savedImage));
+            return image;
         } catch (IOException e) {
-            log.error("Error uploading image: {}", file.getOriginalFilename(), e.getMessage());
-            return Optional.empty();
+            log.error("Error uploading image {}: {}", file.getOriginalFilename(), e.getMessage());
+            return null;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void deleteUploaded(List<Image> images) {
+        images.forEach(image -> firebaseStorageService.deleteFile(image.getStoragePath()));
+    }
+
     @Override
     @Transactional
     public void updateImage(MultipartFile file, Long imageId) {
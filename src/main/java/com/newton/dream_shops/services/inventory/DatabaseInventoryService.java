@@ -0,0 +1,40 @@
+package com.newton.dream_shops.services.inventory;
+
+import com.newton.dream_shops.repository.product.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Takes stock straight from the product table inside the order transaction
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseInventoryService implements IInventoryService {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public List<Long> reserve(Map<Long, Integer> quantities) {
+        return productRepository.decrementInventory(quantities);
+    }
+
+    @Override
+    public void restore(Map<Long, Integer> quantities) {
+        productRepository.incrementInventory(quantities);
+    }
+
+    @Override
+    public void adjust(Long productId, int change) {
+        productRepository.incrementInventory(Map.of(productId, change));
+    }
+
+    @Override
+    public void discard(Long productId) {
+        // The product table is the only stock figure
+    }
+}
@@ -0,0 +1,37 @@
+package com.newton.dream_shops.services.inventory;
+
+import java.util.List;
+import java.util.Map;
+
+public interface IInventoryService {
+
+    /**
+     * Take stock for an order placed in the current transaction. Stock taken
+     * is given back if the transaction rolls back.
+     *
+     * @param quantities Quantity to take per product id
+     * @return Ids of the products without enough stock; nothing is taken unless this is empty
+     */
+    List<Long> reserve(Map<Long, Integer> quantities);
+
+    /**
+     * Give back the stock of a cancelled order
+     *
+     * @param quantities Quantity to return per product id
+     */
+    void restore(Map<Long, Integer> quantities);
+
+    /**
+     * Change a product's stock by the difference an edit made to it. The
+     * change is applied on top of any orders taken in the meantime, and not
+     * at all if the current transaction rolls back.
+     *
+     * @param change Stock to add, or to take away if negative
+     */
+    void adjust(Long productId, int change);
+
+    /**
+     * Drop any stock figure held outside the database for a deleted product
+     */
+    void discard(Long productId);
+}
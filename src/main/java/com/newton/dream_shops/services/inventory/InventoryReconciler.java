@@ -0,0 +1,87 @@
+package com.newton.dream_shops.services.inventory;
+
+import com.newton.dream_shops.cache.RedisLoadLock;
+import com.newton.dream_shops.repository.product.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies confirmed Redis reservations to {@code product.inventory} in
+ * batches, and returns the stock of reservations that expired.
+ * <p>
+ * Deltas are moved to a processing hash before they are applied and only
+ * removed after the database commit, so a node that dies mid-batch leaves
+ * the batch to be applied by the next run. A crash between the commit and
+ * the removal applies that batch twice, which under-counts stock rather
+ * than overselling it.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "redis")
+public class InventoryReconciler {
+
+    private final RedisInventoryService inventoryService;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisLoadLock lock;
+
+    @Value("${app.inventory.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    public InventoryReconciler(RedisInventoryService inventoryService,
+                               ProductRepository productRepository,
+                               TransactionTemplate transactionTemplate,
+                               StringRedisTemplate redisTemplate) {
+        this.inventoryService = inventoryService;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lock = new RedisLoadLock(redisTemplate, RedisInventoryService.LOCK_PREFIX, Duration.ofMinutes(1));
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        // One node at a time, so a claimed batch is never applied twice concurrently
+        String token = lock.tryAcquire(RedisInventoryService.RECONCILE_LOCK);
+        if (token == null) {
+            return;
+        }
+
+        try {
+            int released = inventoryService.releaseExpired(sweepBatchSize);
+            if (released > 0) {
+                log.info("Released {} expired inventory reservations", released);
+            }
+            applyDeltas();
+        } catch (Exception e) {
+            log.error("Inventory reconciliation failed: {}", e.getMessage());
+        } finally {
+            lock.release(RedisInventoryService.RECONCILE_LOCK, token);
+        }
+    }
+
+    private void applyDeltas() {
+        Map<Long, Integer> deltas = inventoryService.claimDeltas();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> increments = new HashMap<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) {
+                increments.put(productId, -delta);
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> productRepository.incrementInventory(increments));
+        inventoryService.completeDeltas();
+        log.debug("Applied inventory deltas for {} products", increments.size());
+    }
+}
@@ -0,0 +1,342 @@
+package com.newton.dream_shops.services.inventory;
+
+import com.newton.dream_shops.cache.RedisLoadLock;
+import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.repository.product.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Keeps the available count of each product in Redis so that checkouts of
+ * the same hot product do not queue on its row in Postgres.
+ * <p>
+ * A checkout reserves stock with a Lua script that checks and decrements
+ * every line at once and records the reservation with an expiry. The
+ * reservation is confirmed just before the order transaction commits, which
+ * moves its quantities into a pending-delta hash; {@link InventoryReconciler}
+ * applies those deltas to {@code product.inventory} in batches. Reservations
+ * whose order never completed (for example because the node died) expire and
+ * are returned to the available counts by the reconciler's sweep.
+ * <p>
+ * Available counts are seeded lazily from the product table, less any
+ * deltas not yet applied to it and any reservations still open. Seeding
+ * reads the table under the reconciler's lock so that a batch cannot be
+ * applied between the read and the seed. Edits to a product's stock go
+ * through the same delta hash as cancelled orders rather than replacing
+ * the seeded count.
+ */
+@Service
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "redis")
+public class RedisInventoryService implements IInventoryService {
+
+    // The hash tag keeps every inventory key in one cluster slot, as the scripts need
+    static final String KEY_PREFIX = "dream-shops:{inventory}:";
+    static final String AVAILABLE_PREFIX = KEY_PREFIX + "available:";
+    static final String RESERVATION_PREFIX = KEY_PREFIX + "reservation:";
+    static final String PENDING_KEY = KEY_PREFIX + "pending";
+    static final String DELTAS_KEY = KEY_PREFIX + "deltas";
+    static final String PROCESSING_KEY = KEY_PREFIX + "deltas:processing";
+    static final String LOCK_PREFIX = KEY_PREFIX + "lock:";
+    static final String RECONCILE_LOCK = "reconcile";
+
+    private static final long RESERVED = 1;
+    private static final long INSUFFICIENT = 0;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS - 2
+            for i = 1, n do
+              local available = redis.call('GET', KEYS[i + 2])
+              if not available then return {-1, i} end
+              if tonumber(available) < tonumber(ARGV[2 + i * 2]) then return {0, i} end
+            end
+            for i = 1, n do
+              redis.call('DECRBY', KEYS[i + 2], ARGV[2 + i * 2])
+              redis.call('HSET', KEYS[1], ARGV[1 + i * 2], ARGV[2 + i * 2])
+            end
+            redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+            return {1, 0}
+            """, List.class);
+
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            local taken = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')
+                + tonumber(redis.call('HGET', KEYS[3], ARGV[1]) or '0')
+            for _, reservationId in ipairs(redis.call('ZRANGE', KEYS[4], 0, -1)) do
+              taken = taken + tonumber(redis.call('HGET', ARGV[3] .. reservationId, ARGV[1]) or '0')
+            end
+            redis.call('SET', KEYS[1], tonumber(ARGV[2]) - taken)
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> CONFIRM_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('ZREM', KEYS[2], ARGV[1]) == 0 then return 0 end
+            local items = redis.call('HGETALL', KEYS[1])
+            for i = 1, #items, 2 do
+              redis.call('HINCRBY', KEYS[3], items[i], items[i + 1])
+            end
+            redis.call('DEL', KEYS[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('ZREM', KEYS[2], ARGV[1]) == 0 then return 0 end
+            local items = redis.call('HGETALL', KEYS[1])
+            for i = 1, #items, 2 do
+              local key = ARGV[2] .. items[i]
+              if redis.call('EXISTS', key) == 1 then redis.call('INCRBY', key, items[i + 1]) end
+            end
+            redis.call('DEL', KEYS[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>("""
+            for i = 2, #ARGV, 2 do
+              local key = ARGV[1] .. ARGV[i]
+              if redis.call('EXISTS', key) == 1 then redis.call('INCRBY', key, ARGV[i + 1]) end
+              redis.call('HINCRBY', KEYS[1], ARGV[i], -tonumber(ARGV[i + 1]))
+            end
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> CLAIM_DELTAS_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 and redis.call('EXISTS', KEYS[1]) == 1 then
+              redis.call('RENAME', KEYS[1], KEYS[2])
+            end
+            return 1
+            """, Long.class);
+
+    private static final int SEED_LOCK_ATTEMPTS = 50;
+    private static final long SEED_LOCK_WAIT_MS = 20;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepository productRepository;
+    private final RedisLoadLock reconcileLock;
+
+    @Value("${app.inventory.reservation-ttl:300}")
+    private long reservationTtlSeconds;
+
+    public RedisInventoryService(StringRedisTemplate redisTemplate, ProductRepository productRepository) {
+        this.redisTemplate = redisTemplate;
+        this.productRepository = productRepository;
+        this.reconcileLock = new RedisLoadLock(redisTemplate, LOCK_PREFIX, Duration.ofMinutes(1));
+    }
+
+    @Override
+    public List<Long> reserve(Map<Long, Integer> quantities) {
+        String reservationId = UUID.randomUUID().toString();
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantities).keySet());
+
+        // Each retry seeds one product whose count was not in Redis yet
+        for (int attempt = 0; attempt <= productIds.size(); attempt++) {
+            List<?> result = runReserve(reservationId, productIds, quantities);
+            long status = ((Number) result.get(0)).longValue();
+            if (status == RESERVED) {
+                bindToTransaction(reservationId, quantities);
+                return List.of();
+            }
+
+            Long productId = productIds.get(((Number) result.get(1)).intValue() - 1);
+            if (status == INSUFFICIENT || !seed(productId)) {
+                return List.of(productId);
+            }
+        }
+        throw new CustomException("Could not reserve inventory");
+    }
+
+    private List<?> runReserve(String reservationId, List<Long> productIds, Map<Long, Integer> quantities) {
+        List<String> keys = new ArrayList<>();
+        keys.add(RESERVATION_PREFIX + reservationId);
+        keys.add(PENDING_KEY);
+
+        List<String> args = new ArrayList<>();
+        args.add(reservationId);
+        args.add(Long.toString(System.currentTimeMillis() + reservationTtlSeconds * 1000));
+        for (Long productId : productIds) {
+            keys.add(AVAILABLE_PREFIX + productId);
+            args.add(productId.toString());
+            args.add(quantities.get(productId).toString());
+        }
+        return redisTemplate.execute(RESERVE_SCRIPT, keys, args.toArray());
+    }
+
+    /**
+     * @return False if the product does not exist
+     */
+    private boolean seed(Long productId) {
+        String token = acquireReconcileLock();
+        try {
+            return productRepository.findInventoryById(productId)
+                    .map(inventory -> {
+                        redisTemplate.execute(SEED_SCRIPT,
+                                List.of(AVAILABLE_PREFIX + productId, DELTAS_KEY, PROCESSING_KEY, PENDING_KEY),
+                                productId.toString(), inventory.toString(), RESERVATION_PREFIX);
+                        return true;
+                    })
+                    .orElse(false);
+        } finally {
+            reconcileLock.release(RECONCILE_LOCK, token);
+        }
+    }
+
+    /**
+     * Wait for the reconciler to finish its current batch, which only takes
+     * as long as one database update
+     */
+    private String acquireReconcileLock() {
+        for (int attempt = 0; attempt < SEED_LOCK_ATTEMPTS; attempt++) {
+            String token = reconcileLock.tryAcquire(RECONCILE_LOCK);
+            if (token != null) {
+                return token;
+            }
+            try {
+                Thread.sleep(SEED_LOCK_WAIT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new CustomException("Inventory is busy, please try again");
+    }
+
+    /**
+     * Confirm the reservation as part of committing the order, and give the
+     * stock back if the order does not commit
+     */
+    private void bindToTransaction(String reservationId, Map<Long, Integer> quantities) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            confirmOrFail(reservationId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean confirmed;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                confirmOrFail(reservationId);
+                confirmed = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                if (confirmed) {
+                    restoreNow(quantities);
+                } else {
+                    release(reservationId);
+                }
+            }
+        });
+    }
+
+    private void confirmOrFail(String reservationId) {
+        Long confirmed = redisTemplate.execute(CONFIRM_SCRIPT,
+                List.of(RESERVATION_PREFIX + reservationId, PENDING_KEY, DELTAS_KEY),
+                reservationId);
+        if (!Long.valueOf(1).equals(confirmed)) {
+            throw new CustomException("Inventory reservation expired, please try again");
+        }
+    }
+
+    /**
+     * Return a reservation's stock unless it was already confirmed or released
+     */
+    boolean release(String reservationId) {
+        Long released = redisTemplate.execute(RELEASE_SCRIPT,
+                List.of(RESERVATION_PREFIX + reservationId, PENDING_KEY),
+                reservationId, AVAILABLE_PREFIX);
+        return Long.valueOf(1).equals(released);
+    }
+
+    /**
+     * Release reservations whose checkout did not finish in time
+     *
+     * @return The number of reservations released
+     */
+    int releaseExpired(int limit) {
+        Set<String> expired = redisTemplate.opsForZSet()
+                .rangeByScore(PENDING_KEY, 0, System.currentTimeMillis(), 0, limit);
+        if (expired == null) {
+            return 0;
+        }
+        int released = 0;
+        for (String reservationId : expired) {
+            if (release(reservationId)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public void restore(Map<Long, Integer> quantities) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            restoreNow(quantities);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                restoreNow(quantities);
+            }
+        });
+    }
+
+    private void restoreNow(Map<Long, Integer> quantities) {
+        List<String> args = new ArrayList<>();
+        args.add(AVAILABLE_PREFIX);
+        quantities.forEach((productId, quantity) -> {
+            args.add(productId.toString());
+            args.add(quantity.toString());
+        });
+        redisTemplate.execute(RESTORE_SCRIPT, List.of(DELTAS_KEY), args.toArray());
+    }
+
+    @Override
+    public void adjust(Long productId, int change) {
+        // Recorded as a negative delta, so the reconciler writes it to the
+        // product table and a reseed in the meantime already counts it
+        restore(Map.of(productId, change));
+    }
+
+    @Override
+    public void discard(Long productId) {
+        redisTemplate.delete(AVAILABLE_PREFIX + productId);
+    }
+
+    /**
+     * Move the pending deltas aside for applying to the database. If an
+     * earlier batch was claimed but never completed, that batch is returned
+     * again instead.
+     */
+    Map<Long, Integer> claimDeltas() {
+        redisTemplate.execute(CLAIM_DELTAS_SCRIPT, List.of(DELTAS_KEY, PROCESSING_KEY));
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        redisTemplate.<String, String>opsForHash().entries(PROCESSING_KEY).forEach((productId, delta) ->
+                deltas.put(Long.valueOf(productId), Integer.valueOf(delta)));
+        return deltas;
+    }
+
+    void completeDeltas() {
+        redisTemplate.delete(PROCESSING_KEY);
+    }
+}
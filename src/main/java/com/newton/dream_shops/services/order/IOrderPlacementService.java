@@ -0,0 +1,25 @@
+package com.newton.dream_shops.services.order;
+
+import com.newton.dream_shops.dto.order.OrderRequestDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface IOrderPlacementService {
+
+    /**
+     * Record an order request for the current user and place the order in the
+     * background. Submitting the same idempotency key again returns the
+     * original request.
+     * @param request HTTP request containing user authentication
+     * @param idempotencyKey Client-chosen key identifying this checkout attempt
+     * @return The accepted (or previously submitted) request
+     */
+    OrderRequestDto submitOrder(HttpServletRequest request, String idempotencyKey);
+
+    /**
+     * Get the status of one of the current user's order requests
+     * @param request HTTP request containing user authentication
+     * @param requestId Order request ID
+     * @return The request, with the order ID once it has been placed
+     */
+    OrderRequestDto getOrderRequest(HttpServletRequest request, Long requestId);
+}
@@ -1,6 +1,8 @@
 package com.newton.dream_shops.services.order;
 
 import com.newton.dream_shops.dto.order.OrderDto;
+import com.newton.dream_shops.dto.order.OrderPageDto;
+import com.newton.dream_shops.dto.order.OrderStatusSummaryDto;
 import com.newton.dream_shops.enums.OrderStatus;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -57,4 +59,37 @@ public interface IOrderService {
      * @return List of orders with specified status
      */
     List<OrderDto> getOrdersByStatus(OrderStatus status);
+
+    /**
+     * Get one page of the current user's orders, newest first
+     * @param request HTTP request containing user authentication
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Page size
+     * @return Orders on the page and the cursor of the next one
+     */
+    OrderPageDto getUserOrdersPage(HttpServletRequest request, String cursor, int limit);
+
+    /**
+     * Get one page of a user's orders, newest first
+     * @param userId User ID
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Page size
+     * @return Orders on the page and the cursor of the next one
+     */
+    OrderPageDto getUserOrdersPageByUserId(Long userId, String cursor, int limit);
+
+    /**
+     * Get one page of orders with a status, newest first
+     * @param status Order status to filter by
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Page size
+     * @return Orders on the page and the cursor of the next one
+     */
+    OrderPageDto getOrdersPageByStatus(OrderStatus status, String cursor, int limit);
+
+    /**
+     * Count orders per status without loading them
+     * @return Count for every status, including those with no orders
+     */
+    OrderStatusSummaryDto getOrderStatusSummary();
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.newton.dream_shops.services.order;
+
+import com.newton.dream_shops.dto.order.OrderDto;
+import com.newton.dream_shops.dto.order.OrderRequestDto;
+import com.newton.dream_shops.enums.OrderRequestStatus;
+import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.models.order.OrderRequest;
+import com.newton.dream_shops.repository.order.OrderRequestRepository;
+import com.newton.dream_shops.util.jwt.JwtHelperService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Accepts order requests and places the orders on a bounded worker pool.
+ * <p>
+ * A request is claimed before it is queued, which moves it to PROCESSING,
+ * and is then processed in a single transaction that locks it, places the
+ * order and marks it completed, so each request places at most one order
+ * however many times it is dispatched. A periodic sweep dispatches requests
+ * that were never claimed and claims that are older than the recovery
+ * delay, left behind by a crash or a full queue; requests still waiting in
+ * the queue with a fresh claim are left alone.
+ */
+@Service
+@Slf4j
+public class OrderPlacementService implements IOrderPlacementService {
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    private static final int RECOVERY_BATCH_SIZE = 100;
+
+    private final OrderRequestRepository orderRequestRepository;
+    private final IOrderService orderService;
+    private final JwtHelperService jwtHelperService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor orderPlacementExecutor;
+
+    @Value("${app.orders.async.recovery-after-seconds:60}")
+    private long recoveryAfterSeconds;
+
+    public OrderPlacementService(OrderRequestRepository orderRequestRepository,
+                                 IOrderService orderService,
+                                 JwtHelperService jwtHelperService,
+                                 TransactionTemplate transactionTemplate,
+                                 @Qualifier("orderPlacementExecutor") TaskExecutor orderPlacementExecutor) {
+        this.orderRequestRepository = orderRequestRepository;
+        this.orderService = orderService;
+        this.jwtHelperService = jwtHelperService;
+        this.transactionTemplate = transactionTemplate;
+        this.orderPlacementExecutor = orderPlacementExecutor;
+    }
+
+    @Override
+    public OrderRequestDto submitOrder(HttpServletRequest request, String idempotencyKey) {
+        if (!StringUtils.hasText(idempotencyKey) || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new CustomException("An Idempotency-Key of at most " + MAX_IDEMPOTENCY_KEY_LENGTH
+                    + " characters is required");
+        }
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+
+        Optional<OrderRequest> existing = orderRequestRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (existing.isPresent()) {
+            return toDto(existing.get());
+        }
+
+        OrderRequest created;
+        try {
+            created = transactionTemplate.execute(
+                    status -> orderRequestRepository.save(new OrderRequest(userId, idempotencyKey)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent submit with the same key got there first
+            return orderRequestRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(this::toDto)
+                    .orElseThrow(() -> e);
+        }
+
+        dispatch(created.getId());
+        return toDto(created);
+    }
+
+    @Override
+    public OrderRequestDto getOrderRequest(HttpServletRequest request, Long requestId) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        return orderRequestRepository.findByIdAndUserId(requestId, userId)
+                .map(this::toDto)
+                .orElseThrow(() -> new CustomException("Order request not found"));
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.async.recovery-interval-ms:30000}")
+    public void recoverStaleRequests() {
+        List<Long> staleIds = orderRequestRepository.findStaleIds(
+                staleBefore(), OrderRequestStatus.ACCEPTED, OrderRequestStatus.PROCESSING,
+                PageRequest.ofSize(RECOVERY_BATCH_SIZE));
+        if (!staleIds.isEmpty()) {
+            log.info("Re-dispatching {} stale order requests", staleIds.size());
+            staleIds.forEach(this::dispatch);
+        }
+    }
+
+    private void dispatch(Long requestId) {
+        if (!claim(requestId)) {
+            // Another node claimed it since it was read
+            return;
+        }
+        try {
+            orderPlacementExecutor.execute(() -> process(requestId));
+        } catch (TaskRejectedException e) {
+            log.warn("Order placement queue is full, request {} will be retried", requestId);
+        }
+    }
+
+    private boolean claim(Long requestId) {
+        Integer claimed = transactionTemplate.execute(status -> orderRequestRepository.claim(
+                requestId, LocalDateTime.now(), staleBefore(),
+                OrderRequestStatus.ACCEPTED, OrderRequestStatus.PROCESSING));
+        return claimed != null && claimed == 1;
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusSeconds(recoveryAfterSeconds);
+    }
+
+    private void process(Long requestId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRequestRepository.findByIdForUpdate(requestId)
+                    .filter(orderRequest -> orderRequest.getStatus() == OrderRequestStatus.PROCESSING)
+                    .ifPresent(orderRequest -> {
+                        OrderDto order = orderService.placeOrderForUser(orderRequest.getUserId());
+                        orderRequest.setOrderId(order.getId());
+                        orderRequest.setStatus(OrderRequestStatus.COMPLETED);
+                    }));
+        } catch (CustomException e) {
+            markFailed(requestId, e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to place order for request {}", requestId, e);
+            markFailed(requestId, "An unexpected error occurred while placing order");
+        }
+    }
+
+    private void markFailed(Long requestId, String reason) {
+        transactionTemplate.executeWithoutResult(status -> orderRequestRepository.findByIdForUpdate(requestId)
+                .filter(orderRequest -> orderRequest.getStatus() == OrderRequestStatus.PROCESSING)
+                .ifPresent(orderRequest -> {
+                    orderRequest.setStatus(OrderRequestStatus.FAILED);
+                    orderRequest.setFailureReason(reason);
+                }));
+    }
+
+    private OrderRequestDto toDto(OrderRequest orderRequest) {
+        OrderRequestDto dto = new OrderRequestDto();
+        dto.setId(orderRequest.getId());
+        dto.setIdempotencyKey(orderRequest.getIdempotencyKey());
+        dto.setStatus(orderRequest.getStatus().name());
+        dto.setOrderId(orderRequest.getOrderId());
+        dto.setFailureReason(orderRequest.getFailureReason());
+        dto.setCreatedAt(orderRequest.getCreatedAt());
+        return dto;
+    }
+}
@@ -1,37 +1,56 @@
 package com.newton.dream_shops.services.order;
 
 import com.newton.dream_shops.dto.order.OrderDto;
+import com.newton.dream_shops.dto.order.OrderItemDto;
+import com.newton.dream_shops.dto.order.OrderPageDto;
+import com.newton.dream_shops.dto.order.OrderStatusSummaryDto;
+import com.newton.dream_shops.enums.OrderEventType;
 import com.newton.dream_shops.enums.OrderStatus;
 import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.mapper.OrderMapper;
 import com.newton.dream_shops.models.cart.Cart;
 import com.newton.dream_shops.models.cart.CartItem;
 import com.newton.dream_shops.models.order.Order;
 import com.newton.dream_shops.models.order.OrderItem;
 import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.order.OrderItemView;
 import com.newton.dream_shops.repository.order.OrderRepository;
-import com.newton.dream_shops.repository.product.ProductRepository;
+import com.newton.dream_shops.repository.order.OrderSummaryView;
 import com.newton.dream_shops.services.cart.cart.ICartService;
+import com.newton.dream_shops.services.inventory.IInventoryService;
+import com.newton.dream_shops.services.outbox.IOutboxService;
 import com.newton.dream_shops.util.jwt.JwtHelperService;
+import com.newton.dream_shops.util.pagination.CursorCodec;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService implements IOrderService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final IInventoryService inventoryService;
+    private final IOutboxService outboxService;
     private final ICartService cartService;
-    private final ModelMapper modelMapper;
+    private final OrderMapper orderMapper;
     private final JwtHelperService jwtHelperService;
+    private final CursorCodec cursorCodec;
 
     @Override
     @Transactional
@@ -44,7 +63,7 @@ public class OrderService implements IOrderService {
         Cart cart = cartService.getOrCreateCartForUser(userId);
         validateCartForOrder(cart);
 
-        validateInventoryAvailability(cart);
+        validateCartItems(cart);
 
         Order order = createOrder(cart);
 
@@ -53,8 +72,9 @@ public class OrderService implements IOrderService {
         order.setTotalPrice(calculateTotalAmount(orderItemsList));
 
         Order savedOrder = orderRepository.save(order);
+        outboxService.recordOrderEvent(OrderEventType.ORDER_PLACED, savedOrder, null);
 
-        cartService.clearCartForUser(userId);
+        cartService.clearOrderedCart(userId, cart);
 
         return convertToDto(savedOrder);
     }
@@ -69,7 +89,7 @@ public class OrderService implements IOrderService {
         Cart cart = cartService.getOrCreateCartForUser(userId);
         validateCartForOrder(cart);
 
-        validateInventoryAvailability(cart);
+        validateCartItems(cart);
 
         Order order = createOrder(cart);
 
@@ -78,8 +98,9 @@ public class OrderService implements IOrderService {
         order.setTotalPrice(calculateTotalAmount(orderItemsList));
 
         Order savedOrder = orderRepository.save(order);
+        outboxService.recordOrderEvent(OrderEventType.ORDER_PLACED, savedOrder, null);
 
-        cartService.clearCartForUser(userId);
+        cartService.clearOrderedCart(userId, cart);
 
         return convertToDto(savedOrder);
     }
@@ -98,19 +119,17 @@ public class OrderService implements IOrderService {
         }
     }
 
-    private void validateInventoryAvailability(Cart cart) {
+    /**
+     * Stock is not compared here: the product row may lag the stock held by
+     * the inventory service, whose reservation is the only authoritative check
+     */
+    private void validateCartItems(Cart cart) {
         for (CartItem cartItem : cart.getCartItems()) {
             Product product = cartItem.getProduct();
             if (product == null) {
                 throw new CustomException("Invalid product in cart");
             }
 
-            if (product.getInventory() < cartItem.getQuantity()) {
-                throw new CustomException(
-                        String.format("Insufficient inventory for product '%s'. Available: %d, Requested: %d",
-                                product.getName(), product.getInventory(), cartItem.getQuantity()));
-            }
-
             if (cartItem.getQuantity() <= 0) {
                 throw new CustomException("Invalid quantity in cart item");
             }
@@ -126,21 +145,38 @@ public class OrderService implements IOrderService {
     }
 
     private List<OrderItem> createOrderItems(Order order, Cart cart) {
-        return cart.getCartItems().stream().map(cartItem -> {
+        reserveInventory(cart);
+        return cart.getCartItems().stream().map(cartItem -> new OrderItem(
+                order,
+                cartItem.getProduct(),
+                cartItem.getQuantity(),
+                cartItem.getUnitPrice())).toList();
+    }
+
+    /**
+     * Take stock for every cart line at once. If any product runs out the
+     * exception rolls back the whole order, including the lines that were
+     * already taken.
+     */
+    private void reserveInventory(Cart cart) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (CartItem cartItem : cart.getCartItems()) {
             Product product = cartItem.getProduct();
+            quantities.merge(product.getId(), cartItem.getQuantity(), Integer::sum);
+            products.put(product.getId(), product);
+        }
 
-            int newInventory = product.getInventory() - cartItem.getQuantity();
-            product.setInventory(newInventory);
-            productRepository.save(product);
-            return new OrderItem(
-                    order,
-                    product,
-                    cartItem.getQuantity(),
-                    cartItem.getUnitPrice());
-        }).toList();
+        List<Long> insufficient = inventoryService.reserve(quantities);
+        if (!insufficient.isEmpty()) {
+            Product product = products.get(insufficient.get(0));
+            throw new CustomException(
+                    String.format("Insufficient inventory for product '%s'. Requested: %d",
+                            product.getName(), quantities.get(product.getId())));
+        }
     }
 
-    private BigDecimal calculateTotalAmount(List<OrderItem> orderItemsList) {
+    static BigDecimal calculateTotalAmount(List<OrderItem> orderItemsList) {
         return orderItemsList
                 .stream()
                 .map(orderItem -> orderItem.getPrice().multiply(
@@ -164,6 +200,7 @@ public class OrderService implements IOrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
+        outboxService.recordOrderEvent(OrderEventType.ORDER_STATUS_CHANGED, savedOrder, oldStatus);
         return convertToDto(savedOrder);
     }
 
@@ -182,13 +219,11 @@ public class OrderService implements IOrderService {
     }
 
     private void restoreInventoryForCancelledOrder(Order order) {
+        Map<Long, Integer> quantities = new HashMap<>();
         for (OrderItem orderItem : order.getOrderItems()) {
-            Product product = orderItem.getProduct();
-            int restoredInventory = product.getInventory() + orderItem.getQuantity();
-            product.setInventory(restoredInventory);
-            productRepository.save(product);
-
+            quantities.merge(orderItem.getProduct().getId(), orderItem.getQuantity(), Integer::sum);
         }
+        inventoryService.restore(quantities);
     }
 
     @Override
@@ -227,7 +262,113 @@ public class OrderService implements IOrderService {
                 .toList();
     }
 
+    @Override
+    public OrderPageDto getUserOrdersPage(HttpServletRequest request, String cursor, int limit) {
+        Long userId = jwtHelperService.getCurrentUserIdFromRequest(request);
+        if (userId == null) {
+            throw new CustomException("User authentication required");
+        }
+        return getUserOrdersPageByUserId(userId, cursor, limit);
+    }
+
+    @Override
+    public OrderPageDto getUserOrdersPageByUserId(Long userId, String cursor, int limit) {
+        if (userId == null) {
+            throw new CustomException("User ID cannot be null");
+        }
+
+        OrderCursor after = decodeCursor(cursor);
+        PageRequest seek = PageRequest.ofSize(pageSize(limit) + 1);
+        List<OrderSummaryView> orders = after == null
+                ? orderRepository.findSummariesByUserId(userId, seek)
+                : orderRepository.findSummariesByUserIdAfter(userId, after.orderDate(), after.id(), seek);
+        return toPage(orders, pageSize(limit));
+    }
+
+    @Override
+    public OrderPageDto getOrdersPageByStatus(OrderStatus status, String cursor, int limit) {
+        OrderCursor after = decodeCursor(cursor);
+        PageRequest seek = PageRequest.ofSize(pageSize(limit) + 1);
+        List<OrderSummaryView> orders = after == null
+                ? orderRepository.findSummariesByStatus(status, seek)
+                : orderRepository.findSummariesByStatusAfter(status, after.orderDate(), after.id(), seek);
+        return toPage(orders, pageSize(limit));
+    }
+
+    @Override
+    public OrderStatusSummaryDto getOrderStatusSummary() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        orderRepository.countByStatus().forEach(row -> counts.put(row.orderStatus(), row.count()));
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new OrderStatusSummaryDto(counts, total);
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Build a page from one more row than the page size, loading the lines
+     * of all its orders with a single query
+     */
+    private OrderPageDto toPage(List<OrderSummaryView> orders, int pageSize) {
+        boolean hasMore = orders.size() > pageSize;
+        List<OrderSummaryView> page = hasMore ? orders.subList(0, pageSize) : orders;
+        if (page.isEmpty()) {
+            return new OrderPageDto(List.of(), null, false);
+        }
+
+        Map<Long, List<OrderItemDto>> itemsByOrder = orderRepository
+                .findItemViewsByOrderIds(page.stream().map(OrderSummaryView::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(OrderItemView::orderId,
+                        Collectors.mapping(this::convertToItemDto, Collectors.toList())));
+
+        List<OrderDto> dtos = new ArrayList<>(page.size());
+        for (OrderSummaryView order : page) {
+            OrderDto dto = new OrderDto();
+            dto.setId(order.id());
+            dto.setUserId(order.userId());
+            dto.setOrderDate(order.orderDate());
+            dto.setTotalPrice(order.totalPrice());
+            dto.setStatus(order.orderStatus().name());
+            dto.setOrderItems(itemsByOrder.getOrDefault(order.id(), List.of()));
+            dtos.add(dto);
+        }
+
+        OrderSummaryView last = page.get(page.size() - 1);
+        String nextCursor = hasMore ? cursorCodec.encode(last.orderDate(), last.id()) : null;
+        return new OrderPageDto(dtos, nextCursor, hasMore);
+    }
+
+    private OrderItemDto convertToItemDto(OrderItemView item) {
+        OrderItemDto dto = new OrderItemDto();
+        dto.setProductId(item.productId());
+        dto.setProductName(item.productName());
+        dto.setQuantity(item.quantity());
+        dto.setPrice(item.price());
+        return dto;
+    }
+
+    private OrderCursor decodeCursor(String cursor) {
+        String[] parts = cursorCodec.decode(cursor, 2);
+        if (parts == null) {
+            return null;
+        }
+        try {
+            return new OrderCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new CustomException("Invalid cursor");
+        }
+    }
+
+    private record OrderCursor(LocalDateTime orderDate, Long id) {
+    }
+
     private OrderDto convertToDto(Order order) {
-        return modelMapper.map(order, OrderDto.class);
+        return orderMapper.toDto(order);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.newton.dream_shops.services.outbox;
+
+import com.newton.dream_shops.enums.OrderEventType;
+import com.newton.dream_shops.enums.OrderStatus;
+import com.newton.dream_shops.models.order.Order;
+
+public interface IOutboxService {
+
+    /**
+     * Record an order event in the outbox; must be called inside the
+     * transaction that made the change
+     * @param type What happened to the order
+     * @param order The order after the change
+     * @param previousStatus The status before the change, or null for a new order
+     */
+    void recordOrderEvent(OrderEventType type, Order order, OrderStatus previousStatus);
+}
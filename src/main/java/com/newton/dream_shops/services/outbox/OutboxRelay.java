@@ -0,0 +1,130 @@
+package com.newton.dream_shops.services.outbox;
+
+import com.newton.dream_shops.cache.RedisLoadLock;
+import com.newton.dream_shops.models.outbox.OutboxEvent;
+import com.newton.dream_shops.repository.outbox.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the configured {@link OutboxSink} in batches.
+ * <p>
+ * Events are delivered in id order by one node at a time and marked
+ * published only after the sink accepted them, giving at-least-once
+ * delivery with per-order ordering. Pending count and lag are exported as
+ * {@code outbox.pending} and {@code outbox.lag.seconds}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String LOCK_NAME = "relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisLoadLock lock;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter published;
+    private final Counter failures;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       StringRedisTemplate redisTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.lock = new RedisLoadLock(redisTemplate, "dream-shops:outbox:lock:", Duration.ofMinutes(1));
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet relayed")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest outbox event not yet relayed")
+                .register(meterRegistry);
+        this.published = Counter.builder("outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        String token = lock.tryAcquire(LOCK_NAME);
+        if (token == null) {
+            return;
+        }
+
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                if (relayBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Outbox relay failed: {}", e.getMessage());
+        } finally {
+            lock.release(LOCK_NAME, token);
+            updateLagMetrics();
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.ofSize(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        sink.publish(events);
+
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(
+                status -> outboxEventRepository.markPublished(ids, LocalDateTime.now()));
+        published.increment(events.size());
+        return events.size();
+    }
+
+    private void updateLagMetrics() {
+        try {
+            pending.set(outboxEventRepository.countByPublishedAtIsNull());
+            LocalDateTime oldest = outboxEventRepository.findOldestUnpublishedCreatedAt();
+            lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+        } catch (Exception e) {
+            log.warn("Failed to update outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 0 * * * *}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(
+                LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.newton.dream_shops.services.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newton.dream_shops.enums.OrderEventType;
+import com.newton.dream_shops.enums.OrderStatus;
+import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.models.order.Order;
+import com.newton.dream_shops.models.outbox.OutboxEvent;
+import com.newton.dream_shops.repository.outbox.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService implements IOutboxService {
+
+    public static final String ORDER_AGGREGATE = "order";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderEvent(OrderEventType type, Order order, OrderStatus previousStatus) {
+        OrderEventPayload payload = new OrderEventPayload(
+                order.getId(),
+                order.getUser() != null ? order.getUser().getId() : null,
+                order.getOrderStatus(),
+                previousStatus,
+                order.getTotalPrice(),
+                order.getOrderItems().size(),
+                LocalDateTime.now());
+
+        try {
+            outboxEventRepository.save(new OutboxEvent(
+                    ORDER_AGGREGATE,
+                    order.getId(),
+                    type.name(),
+                    objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new CustomException("Failed to record order event: " + e.getMessage());
+        }
+    }
+
+    record OrderEventPayload(Long orderId,
+                             Long userId,
+                             OrderStatus status,
+                             OrderStatus previousStatus,
+                             BigDecimal totalPrice,
+                             int itemCount,
+                             LocalDateTime occurredAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.newton.dream_shops.services.outbox;
+
+import com.newton.dream_shops.models.outbox.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination the outbox relay delivers events to
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver a batch of events in the given order. Throwing leaves the whole
+     * batch unpublished so it is delivered again on the next run; consumers
+     * must therefore tolerate duplicates, identified by the event id.
+     */
+    void publish(List<OutboxEvent> events);
+}
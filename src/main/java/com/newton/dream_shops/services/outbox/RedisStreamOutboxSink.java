@@ -0,0 +1,57 @@
+package com.newton.dream_shops.services.outbox;
+
+import com.newton.dream_shops.models.outbox.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends events to a Redis stream, one pipelined round trip per batch
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "redis", matchIfMissing = true)
+public class RedisStreamOutboxSink implements OutboxSink {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.outbox.stream-key:dream-shops:order-events}")
+    private String streamKey;
+
+    @Value("${app.outbox.stream-max-length:100000}")
+    private long streamMaxLength;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        byte[] stream = bytes(streamKey);
+        XAddOptions options = XAddOptions.maxlen(streamMaxLength).approximateTrimming(true);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (OutboxEvent event : events) {
+                Map<byte[], byte[]> body = new LinkedHashMap<>();
+                body.put(bytes("eventId"), bytes(event.getId().toString()));
+                body.put(bytes("aggregateType"), bytes(event.getAggregateType()));
+                body.put(bytes("aggregateId"), bytes(event.getAggregateId().toString()));
+                body.put(bytes("eventType"), bytes(event.getEventType()));
+                body.put(bytes("createdAt"), bytes(event.getCreatedAt().toString()));
+                body.put(bytes("payload"), bytes(event.getPayload()));
+                connection.streamCommands().xAdd(MapRecord.create(stream, body), options);
+            }
+            return null;
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
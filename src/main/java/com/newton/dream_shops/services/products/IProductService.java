@@ -2,6 +2,9 @@ package com.newton.dream_shops.services.products;
 
 import com.newton.dream_shops.dto.product.AddProductsRequest;
 import com.newton.dream_shops.dto.product.ProductDto;
+import com.newton.dream_shops.dto.product.ProductPageDto;
+import com.newton.dream_shops.dto.product.ProductSearchPageDto;
+import com.newton.dream_shops.dto.product.ProductSummaryDto;
 import com.newton.dream_shops.dto.product.ProductsUpdateRequest;
 import com.newton.dream_shops.models.product.Product;
 
@@ -12,6 +15,19 @@ public interface IProductService {
 
     ProductDto getProductById(Long id);
 
+    /**
+     * Cached id, price and inventory of a product, for write paths that do
+     * not need the full product. The inventory is as of caching, like that of
+     * {@link #getProductById}.
+     */
+    ProductSummaryDto getProductSummary(Long id);
+
+    /**
+     * Reference to a product for linking other entities to it. Only checks
+     * that the product exists; its fields are loaded on first access.
+     */
+    Product getProductReference(Long id);
+
     List<ProductDto> getProductsByCategoryId(Long categoryId);
 
     ProductDto updateProduct(ProductsUpdateRequest product, Long productId);
@@ -20,6 +36,8 @@ public interface IProductService {
 
     List<ProductDto> getAllProducts();
 
+    ProductPageDto getProductsPage(String cursor, int limit);
+
     List<ProductDto> getProductsByCategory(String category);
 
     List<ProductDto> getProductByBrand(String brand);
@@ -32,6 +50,14 @@ public interface IProductService {
 
     Long countProductsByBrandAndName(String brand, String name);
 
+    /**
+     * Search product names, brands and descriptions, best match first. Every
+     * word of the query matches as a prefix, and names that are merely
+     * similar to the query (for example misspelled) are included after the
+     * exact matches.
+     */
+    ProductSearchPageDto searchProducts(String query, int page, int size);
+
     List<ProductDto> getConvertedProducts(List<Product> products);
 
     ProductDto toProductDto(Product product);
@@ -1,48 +1,64 @@
 package com.newton.dream_shops.services.products;
 
+import com.newton.dream_shops.config.SearchIndexInitializer;
 import com.newton.dream_shops.constants.CacheConstants;
-import com.newton.dream_shops.dto.image.ImageResponseDto;
 import com.newton.dream_shops.dto.product.AddProductsRequest;
 import com.newton.dream_shops.dto.product.ProductDto;
+import com.newton.dream_shops.dto.product.ProductPageDto;
+import com.newton.dream_shops.dto.product.ProductSearchPageDto;
+import com.newton.dream_shops.dto.product.ProductSummaryDto;
 import com.newton.dream_shops.dto.product.ProductsUpdateRequest;
 import com.newton.dream_shops.exception.CustomException;
+import com.newton.dream_shops.mapper.ProductMapper;
 import com.newton.dream_shops.models.category.Category;
 import com.newton.dream_shops.models.image.Image;
 import com.newton.dream_shops.models.product.Product;
 import com.newton.dream_shops.repository.category.CategoryRepository;
 import com.newton.dream_shops.repository.image.ImageRepository;
 import com.newton.dream_shops.repository.product.ProductRepository;
+import com.newton.dream_shops.cache.CacheTagRegistry;
+import com.newton.dream_shops.services.inventory.IInventoryService;
 import com.newton.dream_shops.util.cache.CacheKeyGenerator;
+import com.newton.dream_shops.util.cache.ProductCacheTags;
+import com.newton.dream_shops.util.pagination.CursorCodec;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService implements IProductService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String ALL_PRODUCTS_KEY = "all";
+    private static final int MAX_SEARCH_TERMS = 8;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ImageRepository imageRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
     private final CacheKeyGenerator cacheKeyGenerator;
+    private final CursorCodec cursorCodec;
+    private final CacheTagRegistry cacheTagRegistry;
+    private final ProductCacheTags productCacheTags;
+    private final IInventoryService inventoryService;
+    private final SearchIndexInitializer searchIndex;
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConstants.PRODUCTS, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_CATEGORY, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_BRAND, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_NAME, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCT_COUNT, allEntries = true)
-    })
     public ProductDto addProduct(AddProductsRequest request) {
         // check if the category is found in the database
         // If yes, set it as the new product category
@@ -62,6 +78,12 @@ public class ProductService implements IProductService {
                 });
         request.setCategory(category);
         Product savedProduct = productRepository.save(createProduct(request, category));
+
+        // A new product can only appear in listings matching its own attributes
+        // and at the tail of the id-ordered catalog
+        List<String> tags = new ArrayList<>(productCacheTags.forProduct(savedProduct));
+        tags.add(ProductCacheTags.LAST_PAGE);
+        invalidateListings(tags, List.of());
         return toProductDto(savedProduct);
     }
 
@@ -76,41 +98,61 @@ public class ProductService implements IProductService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCT_BY_ID, key = "@cacheKeyGenerator.generateSimpleKey(#id)")
+    @Cacheable(value = CacheConstants.PRODUCT_BY_ID, sync = true, key = "@cacheKeyGenerator.generateSimpleKey(#id)")
     public ProductDto getProductById(Long id) {
         Product product = productRepository.findById(id).orElseThrow(() -> new CustomException("Product Not Found"));
         return toProductDto(product);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCTS_BY_CATEGORY, key = "@cacheKeyGenerator.generateSimpleKey(#categoryId)")
+    @Cacheable(value = CacheConstants.PRODUCT_SUMMARY, sync = true, key = "@cacheKeyGenerator.generateSimpleKey(#id)")
+    public ProductSummaryDto getProductSummary(Long id) {
+        return productRepository.findSummaryById(id).orElseThrow(() -> new CustomException("Product Not Found"));
+    }
+
+    @Override
+    public Product getProductReference(Long id) {
+        if (!productRepository.existsById(id)) {
+            throw new CustomException("Product Not Found");
+        }
+        return productRepository.getReferenceById(id);
+    }
+
+    @Override
+    @Cacheable(value = CacheConstants.PRODUCTS_BY_CATEGORY, sync = true, key = "@cacheKeyGenerator.generateSimpleKey(#categoryId)")
     public List<ProductDto> getProductsByCategoryId(Long categoryId) {
 
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new CustomException("Category Not Found"));
 
         List<Product> product = productRepository.findByCategory(category);
+        tagListing(CacheConstants.PRODUCTS_BY_CATEGORY, cacheKeyGenerator.generateSimpleKey(categoryId),
+                productCacheTags.categoryId(categoryId));
         return getConvertedProducts(product);
 
     }
 
     @Override
+    @Transactional
     @Caching(evict = {
-            @CacheEvict(value = CacheConstants.PRODUCTS, allEntries = true),
             @CacheEvict(value = CacheConstants.PRODUCT_BY_ID, key = "@cacheKeyGenerator.generateSimpleKey(#productId)"),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_CATEGORY, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_BRAND, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_NAME, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCT_COUNT, allEntries = true)
+            @CacheEvict(value = CacheConstants.PRODUCT_SUMMARY, key = "@cacheKeyGenerator.generateSimpleKey(#productId)")
     })
     public ProductDto updateProduct(ProductsUpdateRequest productsUpdateRequest, Long productId) {
 
-        Product product = productRepository.findById(productId)
-                .map(existingProduct -> updateExistingProduct(existingProduct, productsUpdateRequest))
-                .map(productRepository::save)
+        Product existingProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new CustomException("Product Not Found"));
+        List<String> tagsBefore = productCacheTags.forProduct(existingProduct);
+        int inventoryChange = productsUpdateRequest.getInventory() - existingProduct.getInventory();
+
+        Product product = productRepository.save(updateExistingProduct(existingProduct, productsUpdateRequest));
+        if (inventoryChange != 0) {
+            inventoryService.adjust(productId, inventoryChange);
+        }
+
+        // Listings matching the old attributes lose the product, listings
+        // matching the new ones gain it
+        invalidateListings(tagsBefore, productCacheTags.forProduct(product));
         return toProductDto(product);
     }
 
@@ -128,83 +170,202 @@ public class ProductService implements IProductService {
     @Override
     @Transactional
     @Caching(evict = {
-            @CacheEvict(value = CacheConstants.PRODUCTS, allEntries = true),
             @CacheEvict(value = CacheConstants.PRODUCT_BY_ID, key = "@cacheKeyGenerator.generateSimpleKey(#id)"),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_CATEGORY, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_BRAND, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_NAME, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, allEntries = true),
-            @CacheEvict(value = CacheConstants.PRODUCT_COUNT, allEntries = true)
+            @CacheEvict(value = CacheConstants.PRODUCT_SUMMARY, key = "@cacheKeyGenerator.generateSimpleKey(#id)")
     })
     public void deleteProduct(Long id) {
-        productRepository.findById(id).ifPresentOrElse(productRepository::delete, () -> {
-            throw new CustomException("Product Not Found");
-        });
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new CustomException("Product Not Found"));
+        List<String> tags = productCacheTags.forProduct(product);
+        productRepository.delete(product);
+        inventoryService.discard(id);
+        invalidateListings(tags, List.of());
+    }
+
+    private void invalidateListings(List<String> tagsBefore, List<String> tagsAfter) {
+        List<String> tags = new ArrayList<>(tagsAfter);
+        tags.add(ProductCacheTags.ALL_PRODUCTS);
+        cacheTagRegistry.invalidate(tagsBefore, tags);
+    }
+
+    private void tagListing(String cacheName, String key, String... tags) {
+        cacheTagRegistry.tag(cacheName, key, List.of(tags));
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCTS)
+    @Cacheable(value = CacheConstants.PRODUCTS, sync = true, key = "'" + ALL_PRODUCTS_KEY + "'")
     public List<ProductDto> getAllProducts() {
         List<Product> product = productRepository.findAll();
+        tagListing(CacheConstants.PRODUCTS, ALL_PRODUCTS_KEY, ProductCacheTags.ALL_PRODUCTS);
         return getConvertedProducts(product);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCTS_BY_CATEGORY, key = "@cacheKeyGenerator.generateSimpleKey(#category)")
+    @Cacheable(value = CacheConstants.PRODUCTS_PAGE, sync = true,
+            key = "@cacheKeyGenerator.generateKey(#cursor, T(com.newton.dream_shops.services.products.ProductService).clampPageSize(#limit))")
+    public ProductPageDto getProductsPage(String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        Long afterId = cursorCodec.decodeLong(cursor);
+
+        // Fetch one extra row to learn whether another page follows
+        PageRequest seek = PageRequest.ofSize(pageSize + 1);
+        List<Product> products = afterId == null
+                ? productRepository.findByOrderByIdAsc(seek)
+                : productRepository.findByIdGreaterThanOrderByIdAsc(afterId, seek);
+
+        boolean hasMore = products.size() > pageSize;
+        List<Product> page = hasMore ? products.subList(0, pageSize) : products;
+        String nextCursor = hasMore ? cursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+        // A page only changes when one of its own products changes, or when
+        // it is the last page and a product is added
+        List<String> tags = new ArrayList<>(page.stream().map(p -> productCacheTags.product(p.getId())).toList());
+        if (!hasMore) {
+            tags.add(ProductCacheTags.LAST_PAGE);
+        }
+        cacheTagRegistry.tag(CacheConstants.PRODUCTS_PAGE, cacheKeyGenerator.generateKey(cursor, pageSize), tags);
+
+        return new ProductPageDto(new ArrayList<>(getConvertedProducts(page)), nextCursor, hasMore);
+    }
+
+    @Override
+    @Cacheable(value = CacheConstants.PRODUCTS_BY_CATEGORY, sync = true, key = "@cacheKeyGenerator.generateSimpleKey(#category)")
     public List<ProductDto> getProductsByCategory(String category) {
         List<Product> product = productRepository.findByCategoryName(category);
+        tagListing(CacheConstants.PRODUCTS_BY_CATEGORY, cacheKeyGenerator.generateSimpleKey(category),
+                productCacheTags.category(category));
         return getConvertedProducts(product);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCTS_BY_BRAND, key = "@cacheKeyGenerator.generateSimpleKey(#brand)")
+    @Cacheable(value = CacheConstants.PRODUCTS_BY_BRAND, sync = true, key = "@cacheKeyGenerator.generateSimpleKey(#brand)")
     public List<ProductDto> getProductByBrand(String brand) {
         List<Product> product = productRepository.findByBrand(brand);
+        tagListing(CacheConstants.PRODUCTS_BY_BRAND, cacheKeyGenerator.generateSimpleKey(brand),
+                productCacheTags.brand(brand));
         return getConvertedProducts(product);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, key = "@cacheKeyGenerator.generateKey(#category, #brand)")
+    @Cacheable(value = CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, sync = true, key = "@cacheKeyGenerator.generateKey(#category, #brand)")
     public List<ProductDto> getProductByCategoryAndBrand(String category, String brand) {
         List<Product> product = productRepository.findByCategoryNameAndBrand(category, brand);
+        tagListing(CacheConstants.PRODUCTS_BY_CATEGORY_AND_BRAND, cacheKeyGenerator.generateKey(category, brand),
+                productCacheTags.categoryAndBrand(category, brand));
         return getConvertedProducts(product);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCTS_BY_NAME, key = "@cacheKeyGenerator.generateSimpleKey(#name)")
+    @Cacheable(value = CacheConstants.PRODUCTS_BY_NAME, sync = true, key = "@cacheKeyGenerator.generateSimpleKey(#name)")
     public List<ProductDto> getProductByName(String name) {
         List<Product> product = productRepository.findByName(name);
+        tagListing(CacheConstants.PRODUCTS_BY_NAME, cacheKeyGenerator.generateSimpleKey(name),
+                productCacheTags.name(name));
         return getConvertedProducts(product);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, key = "@cacheKeyGenerator.generateKey(#brand, #name)")
+    @Cacheable(value = CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, sync = true, key = "@cacheKeyGenerator.generateKey(#brand, #name)")
     public List<ProductDto> getProductByBrandAndName(String brand, String name) {
         List<Product> product = productRepository.findByBrandAndName(brand, name);
+        tagListing(CacheConstants.PRODUCTS_BY_BRAND_AND_NAME, cacheKeyGenerator.generateKey(brand, name),
+                productCacheTags.brandAndName(brand, name));
         return getConvertedProducts(product);
     }
 
     @Override
-    @Cacheable(value = CacheConstants.PRODUCT_COUNT, key = "@cacheKeyGenerator.generateKey(#brand, #name)")
+    @Cacheable(value = CacheConstants.PRODUCT_COUNT, sync = true, key = "@cacheKeyGenerator.generateKey(#brand, #name)")
     public Long countProductsByBrandAndName(String brand, String name) {
+        tagListing(CacheConstants.PRODUCT_COUNT, cacheKeyGenerator.generateKey(brand, name),
+                productCacheTags.brandAndName(brand, name));
         return productRepository.countByBrandAndName(brand, name);
     }
 
+    @Override
+    public ProductSearchPageDto searchProducts(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new CustomException("Search query must not be empty");
+        }
+        int pageSize = clampPageSize(size);
+        int pageNumber = Math.max(0, page);
+        String term = query.trim().toLowerCase(Locale.ROOT);
+
+        List<Product> products;
+        boolean hasMore;
+        if (searchIndex.isFullTextEnabled()) {
+            String tsQuery = toPrefixQuery(term);
+            if (tsQuery == null) {
+                throw new CustomException("Search query must contain letters or digits");
+            }
+            // Fetch one extra row to learn whether another page follows
+            List<Long> ids = productRepository.searchProductIds(tsQuery,
+                    searchIndex.isTrigramEnabled() ? term : null, pageSize + 1, (long) pageNumber * pageSize);
+            hasMore = ids.size() > pageSize;
+            products = findInOrder(hasMore ? ids.subList(0, pageSize) : ids);
+        } else {
+            Slice<Product> slice = productRepository.searchProductByName(term, PageRequest.of(pageNumber, pageSize));
+            hasMore = slice.hasNext();
+            products = slice.getContent();
+        }
+
+        return new ProductSearchPageDto(new ArrayList<>(getConvertedProducts(products)), pageNumber, pageSize, hasMore);
+    }
+
+    /**
+     * Turn free text into a {@code to_tsquery} expression that requires every
+     * word, each matching as a prefix. Only letters and digits are kept, so
+     * user input can never form tsquery operators.
+     *
+     * @return The expression, or null if the text has no searchable words
+     */
+    static String toPrefixQuery(String text) {
+        List<String> words = Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(word -> word + ":*")
+                .toList();
+        return words.isEmpty() ? null : String.join(" & ", words);
+    }
+
+    private List<Product> findInOrder(List<Long> ids) {
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     @Override
     public List<ProductDto> getConvertedProducts(List<Product> products) {
-        return products.stream().map(this::toProductDto).toList();
+        if (products.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Load the images for the whole page in a single IN (...) query
+        // instead of one findByProductId round trip per product
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        Map<Long, List<Image>> imagesByProductId = imageRepository.findByProductIdIn(productIds)
+                .stream()
+                .collect(Collectors.groupingBy(image -> image.getProduct().getId()));
+
+        return products.stream()
+                .map(product -> toProductDto(product,
+                        imagesByProductId.getOrDefault(product.getId(), Collections.emptyList())))
+                .toList();
     }
 
     @Override
     public ProductDto toProductDto(Product product) {
-        ProductDto productDto = modelMapper.map(product, ProductDto.class);
-        List<Image> images = imageRepository.findByProductId(product.getId());
-        List<ImageResponseDto> imageResponseDtos = images.stream()
-                .map(image -> modelMapper.map(image, ImageResponseDto.class))
-                .toList();
+        return toProductDto(product, imageRepository.findByProductId(product.getId()));
+    }
+
+    private ProductDto toProductDto(Product product, List<Image> images) {
+        return productMapper.toDto(product, images);
+    }
 
-        productDto.setImages(imageResponseDtos);
-        return productDto;
+    /**
+     * Page size actually served for a requested limit; page caches are keyed
+     * by it, so every out-of-range limit shares the entry of its clamped size
+     */
+    public static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 }
\ No newline at end of file
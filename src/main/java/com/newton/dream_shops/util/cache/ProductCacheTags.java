@@ -0,0 +1,76 @@
+package com.newton.dream_shops.util.cache;
+
+import com.newton.dream_shops.models.category.Category;
+import com.newton.dream_shops.models.product.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ProductCacheTags {
+
+    /**
+     * Tag carried by the full catalog listing, which any product write changes
+     */
+    public static final String ALL_PRODUCTS = "products:all";
+
+    /**
+     * Tag carried by the last catalog page, which a new product extends
+     */
+    public static final String LAST_PAGE = "products:last-page";
+
+    private final CacheKeyGenerator cacheKeyGenerator;
+
+    public String product(Long productId) {
+        return cacheKeyGenerator.generateCompoundKey("product", productId);
+    }
+
+    public String brand(String brand) {
+        return cacheKeyGenerator.generateCompoundKey("brand", brand);
+    }
+
+    public String name(String name) {
+        return cacheKeyGenerator.generateCompoundKey("name", name);
+    }
+
+    public String category(String categoryName) {
+        return cacheKeyGenerator.generateCompoundKey("category", categoryName);
+    }
+
+    public String categoryId(Long categoryId) {
+        return cacheKeyGenerator.generateCompoundKey("category-id", categoryId);
+    }
+
+    public String categoryAndBrand(String categoryName, String brand) {
+        return cacheKeyGenerator.generateCompoundKey("category-brand", categoryName, brand);
+    }
+
+    public String brandAndName(String brand, String name) {
+        return cacheKeyGenerator.generateCompoundKey("brand-name", brand, name);
+    }
+
+    /**
+     * Every tag a listing containing this product, in its current state, may carry
+     *
+     * @param product The product as it is (or was) stored
+     * @return The tags to invalidate when the product changes
+     */
+    public List<String> forProduct(Product product) {
+        List<String> tags = new ArrayList<>();
+        tags.add(product(product.getId()));
+        tags.add(brand(product.getBrand()));
+        tags.add(name(product.getName()));
+        tags.add(brandAndName(product.getBrand(), product.getName()));
+
+        Category category = product.getCategory();
+        if (category != null) {
+            tags.add(category(category.getName()));
+            tags.add(categoryId(category.getId()));
+            tags.add(categoryAndBrand(category.getName(), product.getBrand()));
+        }
+        return tags;
+    }
+}
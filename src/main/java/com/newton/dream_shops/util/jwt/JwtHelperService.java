@@ -10,7 +10,9 @@ import com.newton.dream_shops.exception.CustomException;
 import com.newton.dream_shops.models.auth.RefreshToken;
 import com.newton.dream_shops.models.auth.User;
 import com.newton.dream_shops.repository.auth.RefreshTokenRepository;
+import com.newton.dream_shops.security.jwt.TokenVersionService;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +26,7 @@ public class JwtHelperService {
 
     private final JwtUtil jwtUtil;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenVersionService tokenVersionService;
 
    
     public String extractTokenFromRequest(HttpServletRequest request) {
@@ -36,6 +39,13 @@ public class JwtHelperService {
 
    
     public Long getCurrentUserIdFromRequest(HttpServletRequest request) {
+        // Reuse the claims the authentication filter already verified
+        if (request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            Long userId = JwtUtil.getUserId(claims);
+            if (userId != null) {
+                return userId;
+            }
+        }
         String token = extractTokenFromRequest(request);
         return getCurrentUserIdFromToken(token);
     }
@@ -43,11 +53,12 @@ public class JwtHelperService {
   
     public Long getCurrentUserIdFromToken(String token) {
         try {
-            if (!jwtUtil.validateToken(token)) {
+            Claims claims = jwtUtil.parseClaims(token);
+            if (claims == null) {
                 throw new CustomException("Invalid token or expired");
             }
 
-            Long userId = jwtUtil.getUserIdFromToken(token);
+            Long userId = JwtUtil.getUserId(claims);
             if (userId == null) {
                 throw new CustomException("User ID not found in token");
             }
@@ -59,6 +70,9 @@ public class JwtHelperService {
     }
 
     public String getCurrentUsernameFromRequest(HttpServletRequest request) {
+        if (request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            return claims.getSubject();
+        }
         String token = extractTokenFromRequest(request);
         return jwtUtil.getUsernameFromToken(token);
     }
@@ -274,6 +288,7 @@ public class JwtHelperService {
     public void performLogoutAllDevices(HttpServletRequest request) {
         Long userId = getCurrentUserIdFromRequest(request);
         revokeAllRefreshTokensByUser(userId);
+        tokenVersionService.revokeAll(userId);
         cleanUpExpiredTokens();
     }
 }
\ No newline at end of file
@@ -3,8 +3,11 @@ package com.newton.dream_shops.util.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +21,14 @@ import java.util.function.Function;
 @Slf4j
 public class JwtUtil {
 
+    /**
+     * Request attribute holding the verified claims of the request's access token
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".claims";
+
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+    public static final String AUTHORITIES_CLAIM = "roles";
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
@@ -27,9 +38,20 @@ public class JwtUtil {
     @Value("${app.jwtRefreshExpirationMs}")
     private int jwtRefreshExpirationMs;
 
-    private SecretKey getSigningKey() {
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * The key and parser are immutable and thread-safe, so they are built once
+     * instead of on every token operation
+     */
+    @PostConstruct
+    void init() {
         byte[] secretBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(secretBytes);
+        signingKey = Keys.hmacShaKeyFor(secretBytes);
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateAccessToken(UserDetails userDetails) {
@@ -40,7 +62,11 @@ public class JwtUtil {
                 (com.newton.dream_shops.models.auth.User) userDetails;
             claims.put("userId", user.getId());
             claims.put("email", user.getEmail());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
         }
+        claims.put(AUTHORITIES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         
         return createToken(claims, userDetails.getUsername(), jwtExpirationMs);
     }
@@ -59,7 +85,7 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiration)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -68,15 +94,27 @@ public class JwtUtil {
     }
 
     public Long getUserIdFromToken(String token) {
-        return getClaimsFromToken(token, claims -> {
-            Object userId = claims.get("userId");
-            if (userId instanceof Integer) {
-                return ((Integer) userId).longValue();
-            } else if (userId instanceof Long) {
-                return (Long) userId;
-            }
-            return null;
-        });
+        return getClaimsFromToken(token, JwtUtil::getUserId);
+    }
+
+    @Nullable
+    public static Long getUserId(Claims claims) {
+        Object userId = claims.get("userId");
+        if (userId instanceof Integer) {
+            return ((Integer) userId).longValue();
+        } else if (userId instanceof Long) {
+            return (Long) userId;
+        }
+        return null;
+    }
+
+    /**
+     * @return The token version the token was issued with; tokens issued before
+     * versioning count as version 0
+     */
+    public static long getTokenVersion(Claims claims) {
+        Object version = claims.get(TOKEN_VERSION_CLAIM);
+        return version instanceof Number number ? number.longValue() : 0L;
     }
 
     public String getEmailFromToken(String token) {
@@ -93,11 +131,30 @@ public class JwtUtil {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Verify the token and return its claims, parsing it only once
+     *
+     * @return The claims, or null if the token is invalid or expired
+     */
+    @Nullable
+    public Claims parseClaims(String token) {
+        try {
+            return getAllClaimsFromToken(token);
+        } catch (MalformedJwtException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            log.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("JWT validation error: {}", e.getMessage());
+        }
+        return null;
     }
 
     public Boolean isTokenExpired(String token) {
@@ -107,32 +164,24 @@ public class JwtUtil {
 
     public Boolean validateUserToken(String token, UserDetails userDetails) {
         try {
-            final String username = getUsernameFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateUserClaims(getAllClaimsFromToken(token), userDetails);
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Check already verified claims against the user they name
+     */
+    public boolean validateUserClaims(Claims claims, UserDetails userDetails) {
+        Date expiration = claims.getExpiration();
+        return userDetails.getUsername().equals(claims.getSubject())
+                && expiration != null
+                && expiration.after(new Date());
+    }
+
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("JWT validation error: {}", e.getMessage());
-        }
-        return false;
+        return parseClaims(token) != null;
     }
 
     public Long getJwtRefreshExpirationMs() {
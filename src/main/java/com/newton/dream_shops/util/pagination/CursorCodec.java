@@ -0,0 +1,69 @@
+package com.newton.dream_shops.util.pagination;
+
+import com.newton.dream_shops.exception.CustomException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+@Component
+public class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final String SEPARATOR_REGEX = "\\|";
+    private static final String NULL_VALUE = "";
+
+    /**
+     * Encode the sort key of the last row of a page into an opaque cursor
+     *
+     * @param parts The sort key values, in sort order
+     * @return The URL-safe cursor string
+     */
+    public String encode(Object... parts) {
+        String raw = Arrays.stream(parts)
+                .map(part -> part != null ? part.toString() : NULL_VALUE)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode(Object...)}
+     *
+     * @param cursor        The opaque cursor sent back by the client
+     * @param expectedParts The number of sort key values the cursor must hold
+     * @return The sort key values, or null when no cursor was supplied
+     */
+    public String[] decode(String cursor, int expectedParts) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR_REGEX, -1);
+            if (parts.length != expectedParts) {
+                throw new CustomException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Decode a single-column numeric cursor such as an id
+     */
+    public Long decodeLong(String cursor) {
+        String[] parts = decode(cursor, 1);
+        if (parts == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new CustomException("Invalid cursor");
+        }
+    }
+}
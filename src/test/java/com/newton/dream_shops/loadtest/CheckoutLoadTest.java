@@ -0,0 +1,73 @@
+package com.newton.dream_shops.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Browse, add to cart and check out with the default database inventory
+ * mode. Sizes can be raised with -Dloadtest.users, -Dloadtest.iterations
+ * and -Dloadtest.products.
+ */
+class CheckoutLoadTest extends LoadTestSupport {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 20);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 25);
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 200);
+
+    @BeforeEach
+    void setUp() {
+        flushRedis();
+    }
+
+    @Test
+    void browseAddToCartAndCheckout() throws Exception {
+        List<Long> productIds = seedProducts(PRODUCTS, 1_000_000);
+        List<String> tokens = seedUsers(USERS);
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        Duration wallTime = runConcurrently(USERS, userIndex -> {
+            String token = tokens.get(userIndex);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ITERATIONS; i++) {
+                JsonNode page = get(recorder, "GET /products/page", "/products/page?limit=20", token);
+                if (page != null && page.path("hasMore").asBoolean()) {
+                    get(recorder, "GET /products/page?after", "/products/page?limit=20&after="
+                            + page.path("nextCursor").asText(), token);
+                }
+
+                int lines = 1 + random.nextInt(3);
+                for (int line = 0; line < lines; line++) {
+                    Long productId = productIds.get(random.nextInt(productIds.size()));
+                    get(recorder, "GET /products/product/{id}/product", "/products/product/" + productId + "/product", token);
+                    post(recorder, "POST /cartItems/item/add", "/cartItems/item/add?productId=" + productId
+                            + "&quantity=" + (1 + random.nextInt(2)), token);
+                }
+
+                get(recorder, "GET /carts/my-cart", "/carts/my-cart", token);
+                post(recorder, "POST /orders/place-order", "/orders/place-order", token);
+                if (i % 5 == 0) {
+                    get(recorder, "GET /orders/my-orders/page", "/orders/my-orders/page?limit=10", token);
+                }
+            }
+        });
+
+        writeReport("checkout", recorder.report("checkout", wallTime));
+        assertThat(recorder.errors()).isZero();
+    }
+
+    @Test
+    void hotSkuCheckoutNeverOversells() throws Exception {
+        int stock = 50;
+        HotSkuResult result = runHotSkuScenario("hot-sku-database", stock, 40, 5);
+
+        assertThat(result.sold()).isBetween(1, stock);
+        assertThat(productRepository.findInventoryById(result.productId())).contains(stock - result.sold());
+    }
+}
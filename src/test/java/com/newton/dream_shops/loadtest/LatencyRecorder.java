@@ -0,0 +1,93 @@
+package com.newton.dream_shops.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects response times per endpoint and summarises them as percentiles
+ * and throughput over the run's wall-clock time
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, ok);
+    }
+
+    public long errors() {
+        return samples.values().stream().mapToLong(Samples::errors).sum();
+    }
+
+    public long successes(String endpoint) {
+        Samples endpointSamples = samples.get(endpoint);
+        return endpointSamples == null ? 0 : endpointSamples.count() - endpointSamples.errors();
+    }
+
+    public String report(String scenario, Duration wallTime) {
+        StringBuilder report = new StringBuilder()
+                .append("Scenario: ").append(scenario)
+                .append(" (").append(wallTime.toMillis()).append(" ms)\n")
+                .append(String.format("%-36s %8s %7s %9s %9s %9s %9s%n",
+                        "endpoint", "count", "errors", "p50 ms", "p99 ms", "max ms", "req/s"));
+
+        double seconds = Math.max(wallTime.toNanos() / 1e9, 1e-9);
+        new TreeMap<>(samples).forEach((endpoint, endpointSamples) -> {
+            long[] sorted = endpointSamples.sorted();
+            report.append(String.format("%-36s %8d %7d %9.2f %9.2f %9.2f %9.1f%n",
+                    endpoint,
+                    sorted.length,
+                    endpointSamples.errors(),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]),
+                    sorted.length / seconds));
+        });
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean ok) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized long count() {
+            return size;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
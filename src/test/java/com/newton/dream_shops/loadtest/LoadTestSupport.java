@@ -0,0 +1,286 @@
+package com.newton.dream_shops.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newton.dream_shops.DreamShopsApplication;
+import com.newton.dream_shops.models.auth.User;
+import com.newton.dream_shops.models.category.Category;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.auth.UserRepository;
+import com.newton.dream_shops.repository.category.CategoryRepository;
+import com.newton.dream_shops.repository.product.ProductRepository;
+import com.newton.dream_shops.services.firebase.FirebaseStorageService;
+import com.newton.dream_shops.util.jwt.JwtUtil;
+import org.junit.jupiter.api.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the whole application on a random port against an in-memory H2
+ * database in PostgreSQL mode and an embedded Redis, with Firebase Storage
+ * and mail stubbed out, and drives it over HTTP like a client would.
+ */
+@SpringBootTest(classes = DreamShopsApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@Tag("loadtest")
+public abstract class LoadTestSupport {
+
+    protected static final Logger log = LoggerFactory.getLogger(LoadTestSupport.class);
+
+    private static RedisServer redisServer;
+    private static int redisPort;
+
+    @MockitoBean
+    protected FirebaseStorageService firebaseStorageService;
+
+    @MockitoBean
+    protected JavaMailSender javaMailSender;
+
+    @LocalServerPort
+    protected int port;
+
+    @Value("${api.prefix}")
+    protected String apiPrefix;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected StringRedisTemplate redisTemplate;
+
+    @Autowired
+    protected JwtUtil jwtUtil;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    protected final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @DynamicPropertySource
+    static void standInProperties(DynamicPropertyRegistry registry) {
+        int port = startRedis();
+        registry.add("spring.data.redis.port", () -> port);
+        // One database per application context, so cached contexts do not share tables
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+    }
+
+    private static synchronized int startRedis() {
+        if (redisServer == null) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                redisPort = socket.getLocalPort();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                redisServer = new RedisServer(redisPort);
+                redisServer.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    redisServer.stop();
+                } catch (Exception e) {
+                    // The JVM is exiting anyway
+                }
+            }));
+        }
+        return redisPort;
+    }
+
+    protected void flushRedis() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    protected List<Long> seedProducts(int count, int inventory) {
+        Category category = categoryRepository.save(new Category("loadtest-" + UUID.randomUUID()));
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new Product("Load test product " + i, "Brand " + (i % 20),
+                    "Seeded for load testing", BigDecimal.valueOf(1000 + i, 2), inventory, category));
+        }
+        return productRepository.saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    /**
+     * @return An access token per user, issued the same way login does
+     */
+    protected List<String> seedUsers(int count) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setFirstName("Load");
+            user.setLastName("Tester " + i);
+            user.setUsername("loadtest-" + run + "-" + i);
+            user.setEmail("loadtest-" + run + "-" + i + "@example.com");
+            user.setEmailVerified(true);
+            user.setEnabled(true);
+            users.add(user);
+        }
+        return userRepository.saveAll(users).stream().map(jwtUtil::generateAccessToken).toList();
+    }
+
+    protected JsonNode get(LatencyRecorder recorder, String endpoint, String path, String token) {
+        return send(recorder, endpoint, request(path, token).GET().build());
+    }
+
+    /**
+     * @param headers Extra header names and values, alternating
+     */
+    protected JsonNode post(LatencyRecorder recorder, String endpoint, String path, String token, String... headers) {
+        HttpRequest.Builder request = request(path, token).POST(HttpRequest.BodyPublishers.noBody());
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return send(recorder, endpoint, request.build());
+    }
+
+    protected JsonNode delete(LatencyRecorder recorder, String endpoint, String path, String token) {
+        return send(recorder, endpoint, request(path, token).DELETE().build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/" + apiPrefix + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    /**
+     * @return The response's data, or null if the call did not succeed
+     */
+    private JsonNode send(LatencyRecorder recorder, String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() / 100 == 2;
+            recorder.record(endpoint, System.nanoTime() - start, ok);
+            return ok ? objectMapper.readTree(response.body()).path("data") : null;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Run one task per virtual user, all released at once
+     *
+     * @return Wall-clock time from release until the last user finished
+     */
+    protected Duration runConcurrently(int users, VirtualUser task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                int userIndex = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(userIndex);
+                    return null;
+                }));
+            }
+
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+            return Duration.ofNanos(System.nanoTime() - began);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    protected void writeReport(String scenario, String report) throws IOException {
+        Path directory = Path.of("target", "loadtest");
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(scenario + ".txt"), report);
+        log.info("\n{}", report);
+    }
+
+    /**
+     * Many users buy a single product with less stock than they ask for in
+     * total. Every order takes one unit, so the units sold must match the
+     * successful orders and the stock must never go negative.
+     *
+     * @return The product bought and the number of orders that succeeded
+     */
+    protected HotSkuResult runHotSkuScenario(String scenario, int stock, int users, int attemptsPerUser) throws Exception {
+        return runHotSkuScenario(scenario, seedProducts(1, stock).get(0), users, attemptsPerUser);
+    }
+
+    protected HotSkuResult runHotSkuScenario(String scenario, Long productId, int users, int attemptsPerUser) throws Exception {
+        List<String> tokens = seedUsers(users);
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        Duration wallTime = runConcurrently(users, userIndex -> {
+            String token = tokens.get(userIndex);
+            for (int attempt = 0; attempt < attemptsPerUser; attempt++) {
+                if (post(recorder, "POST /cartItems/item/add", "/cartItems/item/add?productId=" + productId + "&quantity=1", token) == null) {
+                    continue;
+                }
+                if (post(recorder, "POST /orders/place-order", "/orders/place-order", token) == null) {
+                    delete(recorder, "DELETE /carts/clear", "/carts/clear", token);
+                }
+            }
+        });
+
+        writeReport(scenario, recorder.report(scenario, wallTime));
+        return new HotSkuResult(productId, (int) recorder.successes("POST /orders/place-order"));
+    }
+
+    protected record HotSkuResult(Long productId, int sold) {
+    }
+
+    @FunctionalInterface
+    protected interface VirtualUser {
+        void run(int userIndex) throws Exception;
+    }
+}
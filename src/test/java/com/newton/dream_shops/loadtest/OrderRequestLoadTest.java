@@ -0,0 +1,71 @@
+package com.newton.dream_shops.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asynchronous order placement through {@code /orders/requests}, retried
+ * with the same Idempotency-Key
+ */
+class OrderRequestLoadTest extends LoadTestSupport {
+
+    @BeforeEach
+    void setUp() {
+        flushRedis();
+    }
+
+    @Test
+    void duplicateSubmitsPlaceOneOrder() throws Exception {
+        int stock = 10;
+        int quantity = 2;
+        int submits = 20;
+        Long productId = seedProducts(1, stock).get(0);
+        String token = seedUsers(1).get(0);
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        assertThat(post(recorder, "POST /cartItems/item/add",
+                "/cartItems/item/add?productId=" + productId + "&quantity=" + quantity, token)).isNotNull();
+
+        Set<Long> requestIds = ConcurrentHashMap.newKeySet();
+        runConcurrently(submits, userIndex -> {
+            JsonNode request = post(recorder, "POST /orders/requests", "/orders/requests", token,
+                    "Idempotency-Key", "checkout-1");
+            if (request != null) {
+                requestIds.add(request.path("id").asLong());
+            }
+        });
+
+        assertThat(recorder.errors()).isZero();
+        assertThat(requestIds).hasSize(1);
+        Long requestId = requestIds.iterator().next();
+
+        JsonNode completed = awaitSettled(recorder, requestId, token);
+        assertThat(completed.path("status").asText()).isEqualTo("COMPLETED");
+
+        // A retry after completion still gets the original request back
+        JsonNode retried = post(recorder, "POST /orders/requests", "/orders/requests", token,
+                "Idempotency-Key", "checkout-1");
+        assertThat(retried.path("id").asLong()).isEqualTo(requestId);
+        assertThat(retried.path("orderId").asLong()).isEqualTo(completed.path("orderId").asLong());
+
+        assertThat(productRepository.findInventoryById(productId)).contains(stock - quantity);
+    }
+
+    private JsonNode awaitSettled(LatencyRecorder recorder, Long requestId, String token) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        JsonNode request = get(recorder, "GET /orders/requests/{id}", "/orders/requests/" + requestId, token);
+        while (List.of("ACCEPTED", "PROCESSING").contains(request.path("status").asText())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            request = get(recorder, "GET /orders/requests/{id}", "/orders/requests/" + requestId, token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.newton.dream_shops.loadtest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order placement latency against the number of lines in the order, which
+ * shows whether the order and its items are inserted in JDBC batches. Only
+ * the place-order call is timed; filling the cart is not. Sizes can be
+ * raised with -Dloadtest.users and -Dloadtest.orders.
+ */
+class OrderSizeLoadTest extends LoadTestSupport {
+
+    private static final int[] LINE_COUNTS = { 1, 10, 50, 200 };
+    private static final int USERS = Integer.getInteger("loadtest.users", 4);
+    private static final int ORDERS_PER_USER = Integer.getInteger("loadtest.orders", 5);
+
+    @BeforeEach
+    void setUp() {
+        flushRedis();
+    }
+
+    @Test
+    void placeOrderLatencyByLineCount() throws Exception {
+        List<Long> productIds = seedProducts(LINE_COUNTS[LINE_COUNTS.length - 1], 1_000_000);
+        List<String> tokens = seedUsers(USERS);
+        LatencyRecorder cartRecorder = new LatencyRecorder();
+        LatencyRecorder orderRecorder = new LatencyRecorder();
+
+        Duration total = Duration.ZERO;
+        for (int lines : LINE_COUNTS) {
+            String endpoint = String.format("POST /orders/place-order (%3d lines)", lines);
+            total = total.plus(runConcurrently(USERS, userIndex -> {
+                String token = tokens.get(userIndex);
+                for (int order = 0; order < ORDERS_PER_USER; order++) {
+                    for (Long productId : productIds.subList(0, lines)) {
+                        post(cartRecorder, "POST /cartItems/item/add",
+                                "/cartItems/item/add?productId=" + productId + "&quantity=1", token);
+                    }
+                    post(orderRecorder, endpoint, "/orders/place-order", token);
+                }
+            }));
+        }
+
+        writeReport("order-size", orderRecorder.report("order-size", total));
+        assertThat(cartRecorder.errors()).isZero();
+        assertThat(orderRecorder.errors()).isZero();
+    }
+}
@@ -0,0 +1,93 @@
+package com.newton.dream_shops.loadtest;
+
+import com.newton.dream_shops.constants.CacheConstants;
+import com.newton.dream_shops.services.products.IProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statements behind the product lookup of the cart and image write
+ * paths: the full product DTO followed by a second load of the entity, as
+ * they used to do, against the cached summary and an unloaded reference
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductLookupLoadTest extends LoadTestSupport {
+
+    private static final int PRODUCTS = 100;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        flushRedis();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void summaryLookupIssuesFewerStatements() {
+        List<Long> productIds = seedProducts(PRODUCTS, 100);
+
+        Runnable fullLookup = () -> productIds.forEach(id -> {
+            productService.getProductById(id);
+            productRepository.findById(id);
+        });
+        Runnable summaryLookup = () -> productIds.forEach(id -> {
+            productService.getProductSummary(id);
+            productRepository.getReferenceById(id);
+        });
+
+        clearCaches();
+        long fullCold = statements(fullLookup);
+        long fullWarm = statements(fullLookup);
+        clearCaches();
+        long summaryCold = statements(summaryLookup);
+        long summaryWarm = statements(summaryLookup);
+
+        log.info("Statements per lookup, cold / warm cache: full product {} / {}, summary {} / {}",
+                perLookup(fullCold), perLookup(fullWarm), perLookup(summaryCold), perLookup(summaryWarm));
+
+        assertThat(summaryCold).isLessThan(fullCold);
+        assertThat(summaryWarm).isLessThan(fullWarm);
+        assertThat(summaryWarm).isZero();
+    }
+
+    private long statements(Runnable lookup) {
+        statistics.clear();
+        lookup.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void clearCaches() {
+        for (String name : List.of(CacheConstants.PRODUCT_BY_ID, CacheConstants.PRODUCT_SUMMARY)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        flushRedis();
+    }
+
+    private static String perLookup(long statements) {
+        return String.format("%.2f", (double) statements / PRODUCTS);
+    }
+}
@@ -0,0 +1,124 @@
+package com.newton.dream_shops.loadtest;
+
+import com.newton.dream_shops.dto.product.ProductsUpdateRequest;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.services.products.IProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hot-product checkout with stock reserved in Redis and applied to the
+ * product table by the reconciler
+ */
+@TestPropertySource(properties = {
+        "app.inventory.mode=redis",
+        "app.inventory.reconcile-interval-ms=200"
+})
+class RedisInventoryLoadTest extends LoadTestSupport {
+
+    private static final String KEY_PREFIX = "dream-shops:{inventory}:";
+
+    @Autowired
+    private IProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        flushRedis();
+    }
+
+    @Test
+    void hotSkuCheckoutNeverOversells() throws Exception {
+        int stock = 50;
+        HotSkuResult result = runHotSkuScenario("hot-sku-redis", stock, 40, 5);
+
+        assertThat(result.sold()).isBetween(1, stock);
+        assertThat(awaitInventory(result.productId(), stock - result.sold())).contains(stock - result.sold());
+    }
+
+    @Test
+    void stockEditDuringCheckoutKeepsRedisAndDatabaseInStep() throws Exception {
+        int stock = 30;
+        int restock = 20;
+        Long productId = seedProducts(1, stock).get(0);
+
+        CompletableFuture<HotSkuResult> checkout = CompletableFuture.supplyAsync(() -> {
+            try {
+                return runHotSkuScenario("hot-sku-redis-restock", productId, 40, 5);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        // Edit the product once checkouts have started taking its stock
+        awaitAvailableBelow(productId, stock);
+        Product product = productRepository.findById(productId).orElseThrow();
+        productService.updateProduct(updateRequest(product, product.getInventory() + restock), productId);
+
+        HotSkuResult result = checkout.get(10, TimeUnit.MINUTES);
+        awaitReconciled();
+
+        int inventory = productRepository.findInventoryById(productId).orElseThrow();
+        assertThat(inventory).isNotNegative();
+        assertThat(inventory + result.sold()).isGreaterThanOrEqualTo(stock + restock);
+        assertThat(redisTemplate.opsForValue().get(KEY_PREFIX + "available:" + productId))
+                .isEqualTo(Integer.toString(inventory));
+    }
+
+    private ProductsUpdateRequest updateRequest(Product product, int inventory) {
+        ProductsUpdateRequest request = new ProductsUpdateRequest();
+        request.setName(product.getName());
+        request.setBrand(product.getBrand());
+        request.setDescription(product.getDescription());
+        request.setPrice(product.getPrice());
+        request.setInventory(inventory);
+        request.setCategory(product.getCategory());
+        return request;
+    }
+
+    private void awaitAvailableBelow(Long productId, int stock) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < deadline) {
+            String available = redisTemplate.opsForValue().get(KEY_PREFIX + "available:" + productId);
+            if (available != null && Integer.parseInt(available) < stock) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Wait until every reservation is settled and every delta is written to the product table
+     */
+    private void awaitReconciled() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < deadline) {
+            Long pending = redisTemplate.opsForZSet().zCard(KEY_PREFIX + "pending");
+            boolean settled = (pending == null || pending == 0)
+                    && !Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + "deltas"))
+                    && !Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + "deltas:processing"));
+            if (settled) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private Optional<Integer> awaitInventory(Long productId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        Optional<Integer> inventory = productRepository.findInventoryById(productId);
+        while (!inventory.equals(Optional.of(expected)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            inventory = productRepository.findInventoryById(productId);
+        }
+        return inventory;
+    }
+}
@@ -0,0 +1,116 @@
+package com.newton.dream_shops.repository.product;
+
+import com.newton.dream_shops.models.product.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The conditional batch decrement that takes stock for an order in
+ * database inventory mode. Each test commits its own transactions, as
+ * concurrent orders do.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductInventoryRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void concurrentOrdersCannotBothTakeTheLastStock() throws Exception {
+        Long productId = seedProduct(5);
+        CountDownLatch firstDecremented = new CountDownLatch(1);
+
+        // The first order holds its row lock until the second has started its update
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    List<Long> insufficient = productRepository.decrementInventory(Map.of(productId, 3));
+                    firstDecremented.countDown();
+                    sleep(200);
+                    return insufficient;
+                }));
+        assertThat(firstDecremented.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<Long>> second = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> productRepository.decrementInventory(Map.of(productId, 3))));
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEmpty();
+        assertThat(second.get(10, TimeUnit.SECONDS)).containsExactly(productId);
+        assertThat(productRepository.findInventoryById(productId)).contains(2);
+    }
+
+    @Test
+    void insufficientLineRollsBackTheWholeOrder() {
+        Long plenty = seedProduct(10);
+        Long scarce = seedProduct(1);
+
+        // Mirrors the order service, which throws when any line is short
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            List<Long> insufficient = productRepository.decrementInventory(Map.of(plenty, 4, scarce, 2));
+            assertThat(insufficient).containsExactly(scarce);
+            throw new IllegalStateException("Insufficient inventory");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(productRepository.findInventoryById(plenty)).contains(10);
+        assertThat(productRepository.findInventoryById(scarce)).contains(1);
+    }
+
+    @Test
+    void everyLineIsTakenWhenStockSuffices() {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            productIds.add(seedProduct(5));
+        }
+
+        List<Long> insufficient = transactionTemplate.execute(status -> productRepository.decrementInventory(
+                Map.of(productIds.get(0), 1, productIds.get(1), 2, productIds.get(2), 5)));
+
+        assertThat(insufficient).isEmpty();
+        assertThat(productRepository.findInventoryById(productIds.get(0))).contains(4);
+        assertThat(productRepository.findInventoryById(productIds.get(1))).contains(3);
+        assertThat(productRepository.findInventoryById(productIds.get(2))).contains(0);
+    }
+
+    private Long seedProduct(int inventory) {
+        return productRepository.save(new Product("Inventory test product", "Brand", "Stock under test",
+                BigDecimal.TEN, inventory, null)).getId();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
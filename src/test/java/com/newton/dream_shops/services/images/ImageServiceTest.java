@@ -0,0 +1,132 @@
+package com.newton.dream_shops.services.images;
+
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.contrib.nio.testing.LocalStorageHelper;
+import com.newton.dream_shops.dto.image.ImageResponseDto;
+import com.newton.dream_shops.mapper.ImageMapper;
+import com.newton.dream_shops.models.image.Image;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.image.ImageRepository;
+import com.newton.dream_shops.services.firebase.FirebaseStorageService;
+import com.newton.dream_shops.services.products.IProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Image uploads against the in-memory Storage client
+ */
+class ImageServiceTest {
+
+    private static final String BUCKET = "test-bucket";
+    private static final Long PRODUCT_ID = 1L;
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private Storage storage;
+    private ImageRepository imageRepository;
+    private ThreadPoolTaskExecutor executor;
+    private ImageService imageService;
+    private final List<Image> savedImages = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // The fake cannot sign URLs, as that needs service account credentials
+        storage = mock(Storage.class, delegatesTo(LocalStorageHelper.getOptions().getService()));
+        doAnswer(invocation -> new URL("https://storage.example.com/" + invocation.<BlobInfo>getArgument(0).getName()))
+                .when(storage).signUrl(any(BlobInfo.class), anyLong(), any(TimeUnit.class), any(Storage.SignUrlOption[].class));
+
+        imageRepository = mock(ImageRepository.class);
+        when(imageRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            invocation.<Iterable<Image>>getArgument(0).forEach(savedImages::add);
+            return new ArrayList<>(savedImages);
+        });
+
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        IProductService productService = mock(IProductService.class);
+        when(productService.getProductReference(PRODUCT_ID)).thenReturn(product);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+
+        imageService = new ImageService(imageRepository, productService,
+                new FirebaseStorageService(storage, BUCKET, CHUNK_SIZE), new ImageMapper(), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void uploadsEveryFileAndSavesTheImagesInOneBatch() {
+        List<MultipartFile> files = IntStream.range(0, 6)
+                .mapToObj(i -> (MultipartFile) new MockMultipartFile("files", "image-" + i + ".png", "image/png", content(i)))
+                .toList();
+
+        List<ImageResponseDto> saved = imageService.saveImage(files, PRODUCT_ID);
+
+        assertThat(saved).hasSize(files.size());
+        verify(imageRepository, times(1)).saveAll(anyIterable());
+        for (Image image : savedImages) {
+            int index = Integer.parseInt(image.getFileName().replaceAll("\\D", ""));
+            // Larger than one chunk, so each upload is written in several parts
+            assertThat(storage.readAllBytes(BlobId.of(BUCKET, image.getStoragePath()))).isEqualTo(content(index));
+            assertThat(image.getImageUrl()).endsWith(image.getStoragePath());
+        }
+    }
+
+    @Test
+    void failedUploadDeletesTheFilesAlreadyUploaded() throws Exception {
+        MultipartFile broken = mock(MultipartFile.class);
+        when(broken.getOriginalFilename()).thenReturn("broken.png");
+        when(broken.getContentType()).thenReturn("image/png");
+        when(broken.getInputStream()).thenThrow(new IllegalStateException("Upload stream closed"));
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "image-0.png", "image/png", content(0)),
+                broken,
+                new MockMultipartFile("files", "image-2.png", "image/png", content(2)));
+
+        assertThatThrownBy(() -> imageService.saveImage(files, PRODUCT_ID))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        verify(imageRepository, never()).saveAll(anyIterable());
+        List<Blob> remaining = new ArrayList<>();
+        storage.list(BUCKET).iterateAll().forEach(remaining::add);
+        assertThat(remaining).isEmpty();
+    }
+
+    private static byte[] content(int seed) {
+        byte[] bytes = new byte[CHUNK_SIZE * 2 + 1000];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,122 @@
+package com.newton.dream_shops.services.products;
+
+import com.newton.dream_shops.cache.CacheTagRegistry;
+import com.newton.dream_shops.config.SearchIndexInitializer;
+import com.newton.dream_shops.mapper.ImageMapper;
+import com.newton.dream_shops.mapper.ProductMapper;
+import com.newton.dream_shops.models.category.Category;
+import com.newton.dream_shops.models.image.Image;
+import com.newton.dream_shops.models.product.Product;
+import com.newton.dream_shops.repository.product.ProductRepository;
+import com.newton.dream_shops.services.inventory.IInventoryService;
+import com.newton.dream_shops.util.cache.CacheKeyGenerator;
+import com.newton.dream_shops.util.cache.ProductCacheTags;
+import com.newton.dream_shops.util.pagination.CursorCodec;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statements behind turning a list of products into DTOs, which must
+ * not grow with the number of products
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ ProductService.class, ProductMapper.class, ImageMapper.class })
+class ProductConversionTest {
+
+    private static final int IMAGES_PER_PRODUCT = 2;
+
+    @MockitoBean
+    private CacheKeyGenerator cacheKeyGenerator;
+
+    @MockitoBean
+    private CursorCodec cursorCodec;
+
+    @MockitoBean
+    private CacheTagRegistry cacheTagRegistry;
+
+    @MockitoBean
+    private ProductCacheTags productCacheTags;
+
+    @MockitoBean
+    private IInventoryService inventoryService;
+
+    @MockitoBean
+    private SearchIndexInitializer searchIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementCountDoesNotGrowWithProducts() {
+        List<Long> productIds = seedProducts(100);
+        List<Product> products = productRepository.findAllById(productIds);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long tenProducts = statements(statistics, products.subList(0, 10));
+        long hundredProducts = statements(statistics, products);
+
+        assertThat(hundredProducts).isEqualTo(tenProducts);
+        assertThat(tenProducts).isEqualTo(1);
+    }
+
+    private long statements(Statistics statistics, List<Product> products) {
+        statistics.clear();
+        assertThat(productService.getConvertedProducts(products))
+                .hasSize(products.size())
+                .allSatisfy(dto -> assertThat(dto.getImages()).hasSize(IMAGES_PER_PRODUCT));
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Products with their images, written out and detached so that nothing
+     * is served from the persistence context
+     */
+    private List<Long> seedProducts(int count) {
+        Category category = entityManager.persist(new Category("conversion-test"));
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = entityManager.persist(new Product("Product " + i, "Brand", "Converted in a test",
+                    BigDecimal.valueOf(1000 + i, 2), 100, category));
+            for (int j = 0; j < IMAGES_PER_PRODUCT; j++) {
+                Image image = new Image();
+                image.setFileName("product-" + i + "-" + j + ".png");
+                image.setFileType("image/png");
+                image.setStoragePath("products/" + i + "/" + j + ".png");
+                image.setProduct(product);
+                entityManager.persist(image);
+            }
+            productIds.add(product.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return productIds;
+    }
+}